@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the JMH results (csv) with the baseline and exits with an error if the hot path has regressed.
+ * The normalized allocation of a benchmark must not grow and its score must stay within the tolerance,
+ * the other secondary metrics of the profilers are ignored.
+ * The scores are compared relative to {@link ControlBenchmark} of the same run, so the baseline is scaled
+ * by the speed of the machine which runs the check. A score has regressed only if the lower bound of its
+ * confidence interval (99.9%) is above the upper bound of the baseline's interval plus the tolerance,
+ * so the noise of the run isn't reported as a regression.
+ * Usage: BaselineCheck baseline.csv results.csv [tolerance]
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_TOLERANCE = 16; // bytes per operation
+    private static final double DEFAULT_TOLERANCE = 0.3;
+    private static final String CONTROL = ControlBenchmark.class.getName() + ".polynomial";
+
+    private static final int SCORE = 0;
+    private static final int ERROR = 1;
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineCheck baseline.csv results.csv [tolerance]");
+            System.exit(2);
+        }
+        final double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        final Map<String, double[]> baseline = read(args[0]);
+        final Map<String, double[]> results = read(args[1]);
+
+        double speed = 1;
+        final double[] baselineControl = baseline.get(CONTROL), control = results.get(CONTROL);
+        if (baselineControl != null && control != null) {
+            speed = control[SCORE] / baselineControl[SCORE];
+            System.out.println("CONTROL    " + control[SCORE] + " (baseline " + baselineControl[SCORE]
+                    + "), the baseline is scaled by " + speed);
+        } else {
+            System.out.println("CONTROL    missing, the scores are compared as they are");
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, double[]> result : results.entrySet()) {
+            final String key = result.getKey();
+            final boolean allocation = key.contains(ALLOCATION);
+            if (key.equals(CONTROL) || (!allocation && key.contains(":"))) continue;
+
+            final double[] recorded = baseline.get(key);
+            final double score = result.getValue()[SCORE], error = result.getValue()[ERROR];
+            if (recorded == null) {
+                System.out.println("NEW        " + key + " = " + score);
+                continue;
+            }
+
+            final boolean regressed;
+            final double expected, expectedError;
+            if (allocation) {
+                expected = recorded[SCORE];
+                expectedError = 0;
+                regressed = score > expected + ALLOCATION_TOLERANCE;
+            } else {
+                expected = recorded[SCORE] * speed;
+                expectedError = recorded[ERROR] * speed;
+                regressed = score - error > (expected + expectedError) * (1 + tolerance);
+            }
+
+            System.out.println((regressed ? "REGRESSION " : "OK         ") + key + " = " + score + " +/- " + error
+                    + " (baseline " + expected + " +/- " + expectedError + ")");
+            if (regressed) regressions++;
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed from the baseline");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return score and error of every benchmark and its secondary metrics, the key contains the parameters.
+     * The error is zero if the benchmark has no confidence interval.
+     */
+    private static Map<String, double[]> read(String path) throws IOException {
+        final Map<String, double[]> scores = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+            final List<String> header = parse(reader.readLine());
+            final int score = header.indexOf("Score");
+            final int error = header.indexOf("Score Error (99.9%)");
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) continue;
+                final List<String> row = parse(line);
+
+                // secondary metrics are prefixed by a non-ascii dot, which depends on the charset of the writer
+                final StringBuilder key = new StringBuilder(row.get(0).replaceAll(":[^\\w]*", ":"));
+                for (int i = 0; i < header.size() && i < row.size(); i++) {
+                    if (header.get(i).startsWith("Param: ") && !row.get(i).isEmpty())
+                        key.append(' ').append(header.get(i).substring(7)).append('=').append(row.get(i));
+                }
+                final double scoreError = error < 0 ? Double.NaN : Double.parseDouble(row.get(error));
+                scores.put(key.toString(), new double[]{
+                        Double.parseDouble(row.get(score)), Double.isNaN(scoreError) ? 0 : scoreError});
+            }
+        }
+        return scores;
+    }
+
+    private static List<String> parse(String line) {
+        final List<String> cells = new ArrayList<>();
+        final StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.benchmark;
+
+import com.aghajari.powerview.core.MotionProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating a single frame of every animation, at the beginning, the middle and the end of the motion.
+ *
+ * @author AmirHosseinAghajari
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class FrameEvaluationBenchmark {
+
+    @Param({"SHOW", "LOADING", "SUCCEED", "RELOAD", "INNER_POWER_LOADING", "INNER_SUCCESS_LOADING", "INNER_RELOAD"})
+    public String profile;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public float phase;
+
+    private MotionProfile motion;
+    private long time;
+    private final MotionProfile.Frame frame = new MotionProfile.Frame();
+
+    @Setup
+    public void setup() {
+        motion = Profiles.create(profile);
+        time = (long) (motion.getDuration() * phase);
+    }
+
+    @Benchmark
+    public MotionProfile.Frame frame() {
+        motion.evaluate(time, frame);
+        return frame;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.benchmark;
+
+import com.aghajari.powerview.core.Kinematics;
+import com.aghajari.powerview.core.MotionProfile;
+
+/**
+ * The motion profiles of every animation with the default configuration of AXPowerView.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class Profiles {
+
+    static final long SHOW_DURATION = 400;
+    static final long INDETERMINATE_DURATION = 600;
+    static final long SUCCEED_DURATION = 400;
+    static final long DELAY = 80;
+
+    private Profiles() {
+    }
+
+    /** @return the profile of the given animation */
+    static MotionProfile create(String name) {
+        switch (name) {
+            case "SHOW":
+                return MotionProfile.show(SHOW_DURATION);
+            case "LOADING":
+                return MotionProfile.loading(INDETERMINATE_DURATION, DELAY);
+            case "SUCCEED":
+                return MotionProfile.loading(SUCCEED_DURATION, DELAY);
+            case "RELOAD":
+                return MotionProfile.reload(INDETERMINATE_DURATION);
+            case "INNER_POWER_LOADING":
+                return innerPowerLoading(INDETERMINATE_DURATION);
+            case "INNER_SUCCESS_LOADING":
+                return MotionProfile.innerSuccessLoading(MotionProfile.loading(SUCCEED_DURATION, DELAY).getDuration());
+            case "INNER_RELOAD":
+                return innerReload(INDETERMINATE_DURATION);
+            default:
+                throw new IllegalArgumentException("unknown profile " + name);
+        }
+    }
+
+    /** @return the power's arc loading, it lasts as long as a round of the main circle */
+    static MotionProfile innerPowerLoading(long indeterminateDuration) {
+        final long maxDuration = MotionProfile.loading(indeterminateDuration, DELAY).getDuration();
+        return MotionProfile.innerPowerLoading(maxDuration, DELAY, Kinematics.innerLoadingRatio(indeterminateDuration));
+    }
+
+    /** @return the power's arc reloading, after the success lines have been hidden */
+    static MotionProfile innerReload(long indeterminateDuration) {
+        final long duration = indeterminateDuration * 2;
+        return MotionProfile.innerReload(duration - (duration / 8) * 2);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.benchmark;
+
+import com.aghajari.powerview.core.FrameModel;
+import com.aghajari.powerview.core.Kinematics;
+import com.aghajari.powerview.core.Timeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a transition on the timeline, as the drawable runs it with the default configuration:
+ * scheduling its segments and evaluating its first frame, and every frame of it at 60fps.
+ *
+ * @author AmirHosseinAghajari
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class TransitionScheduleBenchmark implements FrameModel.Host {
+
+    private static final long FRAME_NANOS = 16666667;
+
+    @Param({"HIDDEN_POWER", "POWER_LOADING", "LOADING_LOADING", "LOADING_SUCCEED",
+            "LOADING_POWER", "SUCCEED_POWER", "POWER_RELOADING"})
+    public String transition;
+
+    private final FrameModel model = new FrameModel(this);
+    private final Timeline timeline = model.getTimeline();
+    private boolean ended;
+
+    /** schedule the transition and evaluate its first frame */
+    @Benchmark
+    public FrameModel.Frame schedule() {
+        start();
+        timeline.tick(FRAME_NANOS, -1);
+        timeline.flush();
+        return model.getFrame();
+    }
+
+    /** schedule the transition and evaluate all of its frames, a round of the loading */
+    @Benchmark
+    public FrameModel.Frame run() {
+        start();
+        long frameTime = 0;
+        while (!ended) {
+            frameTime += FRAME_NANOS;
+            timeline.tick(frameTime, -1);
+            timeline.flush();
+        }
+        return model.getFrame();
+    }
+
+    /** stop the previous transition, settle its state and schedule the next one */
+    private void start() {
+        timeline.cancel();
+        model.stop();
+        ended = false;
+        model.setIconLengths(30, 10, 20);
+
+        final float ratio = Kinematics.innerLoadingRatio(Profiles.INDETERMINATE_DURATION);
+        switch (transition) {
+            case "HIDDEN_POWER":
+                model.hide();
+                model.show(Profiles.SHOW_DURATION);
+                break;
+            case "POWER_LOADING":
+                model.settle(FrameModel.ICON_POWER);
+                model.hidePowerLine();
+                model.loading(Profiles.INDETERMINATE_DURATION, Profiles.DELAY, ratio, true);
+                break;
+            case "LOADING_LOADING":
+                model.settle(FrameModel.ICON_POWER);
+                model.hideLines();
+                model.loading(Profiles.INDETERMINATE_DURATION, Profiles.DELAY, ratio, true);
+                break;
+            case "LOADING_SUCCEED":
+                model.settle(FrameModel.ICON_POWER);
+                model.hideLines();
+                model.succeed(Profiles.SUCCEED_DURATION, Profiles.DELAY, ratio);
+                break;
+            case "LOADING_POWER":
+                model.settle(FrameModel.ICON_POWER);
+                model.hideLines();
+                model.backFromLoading();
+                break;
+            case "SUCCEED_POWER":
+                model.settle(FrameModel.ICON_SUCCESS);
+                model.hideLines();
+                model.reload(Profiles.INDETERMINATE_DURATION);
+                model.reloadIcon(Profiles.INDETERMINATE_DURATION);
+                break;
+            case "POWER_RELOADING":
+                model.settle(FrameModel.ICON_POWER);
+                model.reload(Profiles.INDETERMINATE_DURATION);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown transition " + transition);
+        }
+        timeline.start();
+    }
+
+    @Override
+    public void onRoundStart() {
+    }
+
+    @Override
+    public void onMotionEnd(int motion) {
+        // the loading repeats, a round of it is measured
+        ended = true;
+    }
+
+    @Override
+    public void onFrame(boolean loopOnly) {
+    }
+}
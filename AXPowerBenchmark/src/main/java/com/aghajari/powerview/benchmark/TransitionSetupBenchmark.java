@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.benchmark;
+
+import com.aghajari.powerview.core.MotionProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the kinematics of a transition, a transition looks up its profiles in the cache
+ * and compiles them only when the configuration has changed.
+ * The segments of the transitions on the timeline are measured by {@link TransitionScheduleBenchmark}.
+ *
+ * @author AmirHosseinAghajari
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class TransitionSetupBenchmark {
+
+    // more configurations than the size of the cache, so every transition compiles its profiles
+    private static final int CONFIGURATIONS = 64;
+
+    private int configuration = 0;
+
+    /** POWER to LOADING with the same configuration as the last time */
+    @Benchmark
+    public void loadingCached(Blackhole blackhole) {
+        blackhole.consume(MotionProfile.loading(Profiles.INDETERMINATE_DURATION, Profiles.DELAY));
+        blackhole.consume(Profiles.innerPowerLoading(Profiles.INDETERMINATE_DURATION));
+    }
+
+    /** POWER to LOADING with a new configuration */
+    @Benchmark
+    public void loadingCompiled(Blackhole blackhole) {
+        final long duration = Profiles.INDETERMINATE_DURATION + nextConfiguration();
+        blackhole.consume(MotionProfile.loading(duration, Profiles.DELAY));
+        blackhole.consume(Profiles.innerPowerLoading(duration));
+    }
+
+    /** SUCCEED to POWER with the same configuration as the last time */
+    @Benchmark
+    public void reloadCached(Blackhole blackhole) {
+        blackhole.consume(MotionProfile.reload(Profiles.INDETERMINATE_DURATION));
+        blackhole.consume(Profiles.innerReload(Profiles.INDETERMINATE_DURATION));
+    }
+
+    /** SUCCEED to POWER with a new configuration */
+    @Benchmark
+    public void reloadCompiled(Blackhole blackhole) {
+        final long duration = Profiles.INDETERMINATE_DURATION + nextConfiguration();
+        blackhole.consume(MotionProfile.reload(duration));
+        blackhole.consume(Profiles.innerReload(duration));
+    }
+
+    /** HIDDEN to POWER with a new configuration */
+    @Benchmark
+    public MotionProfile showCompiled() {
+        return MotionProfile.show(Profiles.SHOW_DURATION + nextConfiguration());
+    }
+
+    private int nextConfiguration() {
+        configuration = (configuration + 1) % CONFIGURATIONS;
+        return configuration;
+    }
+}
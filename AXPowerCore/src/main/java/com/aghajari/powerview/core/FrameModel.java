@@ -0,0 +1,605 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * The frame of the power indicator and the segments which animate it.
+ * Every motion of a transition schedules its segments on the {@link Timeline} and every segment writes its part
+ * of the {@link Frame}, so the frame of any transition at any time is computed without android.
+ * Angles are in degrees (zero is the top of the circle), times are in milliseconds and lengths are in pixels.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class FrameModel implements Timeline.Target {
+
+    public interface Host {
+        /** a round of the loading has been started */
+        void onRoundStart();
+        /** the motion has been finished, see the MOTION constants */
+        void onMotionEnd(int motion);
+        /**
+         * the frame has been changed
+         * @param loopOnly true if only the loading loop (the main circle and the power's arc) has been moved
+         */
+        void onFrame(boolean loopOnly);
+    }
+
+    /** values of a single frame */
+    public static final class Frame {
+        /** the main circle */
+        public float start, end;
+        /** velocities of the start and the end of the main circle, they draw the trail */
+        public float startV, endV;
+        public boolean focusOnEnd;
+        /** the arc of the innerView */
+        public float innerStart, innerEnd;
+        /** revealed part of the power's line (distances from its top) and of the check mark */
+        public float powerLineFrom, powerLineTo, successLength;
+        /** opacity of the innerView, between 0 and 1 */
+        public float innerAlpha = 1;
+    }
+
+    // ICONS
+    public static final int ICON_POWER = 0;
+    public static final int ICON_SUCCESS = 1;
+    private static final int NO_ICON = -1;
+
+    // MOTIONS
+    /** the showing motion has been finished */
+    public static final int MOTION_SHOW = 0;
+    /** a round of the loading has been finished */
+    public static final int MOTION_LOADING = 1;
+    /** the reloading motion has been finished */
+    public static final int MOTION_RELOAD = 2;
+    /** the power's line has been shown back after the loading */
+    public static final int MOTION_SHOW_LINE = 3;
+
+    // SEGMENTS
+    static final int SHOW = 0;
+    static final int LOADING = 1;
+    static final int RELOAD = 2;
+    static final int INNER_ALPHA = 3;
+    static final int INNER_SHOW_POWER = 4;
+    static final int INNER_SHOW_SUCCESS_1 = 5;
+    static final int INNER_SHOW_SUCCESS_2 = 6;
+    static final int INNER_HIDE_LINE = 7;
+    static final int INNER_SHOW_LINE = 8;
+    static final int INNER_POWER_LOADING = 9;
+    static final int INNER_SUCCESS_LOADING = 10;
+    static final int INNER_RELOAD_LINE_1 = 11;
+    static final int INNER_RELOAD_LINE_2 = 12;
+    static final int INNER_RELOAD_ARC = 13;
+    static final int INNER_RELOAD_POWER_LINE = 14;
+    static final int PROGRESS_FILL = 15;
+
+    public static final long POWER_LINE_DURATION = 140;
+
+    private final Host host;
+    private final Timeline timeline = new Timeline(this);
+    private final Frame frame = new Frame();
+    private final MotionProfile.Frame arc = new MotionProfile.Frame();
+    private MotionProfile profile, innerProfile;
+
+    private boolean innerView = true;
+    private int icon = ICON_POWER, nextIcon = NO_ICON;
+    private float powerLength, successLength1, successLength2;
+
+    private boolean looping = false;
+    private boolean uiFrame = false;
+
+    // DETERMINATE PROGRESS
+    private boolean determinate = false;
+    private float progress, progressV;
+    private float fillFrom, fillV;
+
+    public FrameModel(Host host) {
+        this.host = host;
+    }
+
+    /** @return the timeline of the segments, it's driven by the host's clock */
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    /** @return the current frame, it must not be modified */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    // CONFIGURATION
+
+    /** show or hide the innerView, a hidden innerView schedules no segment */
+    public void setInnerView(boolean innerView) {
+        this.innerView = innerView;
+    }
+
+    /**
+     * set the lengths of the icons, the revealed parts of the icons are rescaled to the new lengths.
+     * The running segments read the new lengths on their next frame.
+     */
+    public void setIconLengths(float powerLength, float successLength1, float successLength2) {
+        final Frame frame = this.frame;
+        if (this.powerLength > 0) {
+            final float scale = powerLength / this.powerLength;
+            frame.powerLineFrom *= scale;
+            frame.powerLineTo *= scale;
+        }
+        if (frame.successLength <= this.successLength1) {
+            if (this.successLength1 > 0)
+                frame.successLength *= successLength1 / this.successLength1;
+        } else if (this.successLength2 > 0) {
+            frame.successLength = successLength1
+                    + (frame.successLength - this.successLength1) * successLength2 / this.successLength2;
+        }
+
+        this.powerLength = powerLength;
+        this.successLength1 = successLength1;
+        this.successLength2 = successLength2;
+    }
+
+    /** set the icon of the innerView, see the ICON constants */
+    public void setIcon(int icon) {
+        this.icon = icon;
+    }
+
+    /** @return the icon of the innerView */
+    public int getIcon() {
+        return icon;
+    }
+
+    /** @return the icon which the innerView is going to show */
+    public int getNextIcon() {
+        return nextIcon != NO_ICON ? nextIcon : icon;
+    }
+
+    // STATIC FRAMES
+
+    /** the timeline has been cancelled, the frame keeps its values without any velocity */
+    public void stop() {
+        frame.startV = 0;
+        frame.endV = 0;
+        frame.innerAlpha = 1;
+        looping = false;
+    }
+
+    /** hide the whole indicator */
+    public void hide() {
+        icon = ICON_POWER;
+        nextIcon = NO_ICON;
+        hideLines();
+        frame.innerStart = 0;
+        frame.innerEnd = 0;
+        frame.start = 0;
+        frame.end = 0;
+    }
+
+    /** show the full circle and the icon without any animation */
+    public void settle(int icon) {
+        this.icon = icon;
+        nextIcon = NO_ICON;
+        frame.start = 0.0f;
+        frame.end = 360.0f;
+        showIcon();
+    }
+
+    /** load the icon of the innerView */
+    public void showIcon() {
+        if (!innerView) return;
+        final Frame frame = this.frame;
+
+        if (icon == ICON_POWER) {
+            frame.innerStart = 45.0f;
+            frame.innerEnd = 360.0f - frame.innerStart;
+
+            frame.successLength = 0;
+            setPowerLine(0, powerLength);
+        } else {
+            frame.innerStart = 0;
+            frame.innerEnd = 0;
+
+            setPowerLine(0, 0);
+            frame.successLength = getSuccessLength();
+        }
+    }
+
+    /** hide the power's line and the check mark */
+    public void hideLines() {
+        setPowerLine(0, 0);
+        frame.successLength = 0;
+    }
+
+    // MOTIONS
+
+    /** the showing motion of the main circle, the icon appears along with it */
+    public void show(long duration) {
+        frame.focusOnEnd = false;
+
+        profile = MotionProfile.show(duration);
+        profile.evaluate(0, arc);
+        frame.start = arc.start;
+        frame.end = arc.end;
+
+        final long innerStartTime = MotionProfile.SHOW_STEP_DURATION * 2;
+        timeline.add(SHOW, 0, profile.getDuration());
+        scheduleIcon(innerStartTime, profile.getDuration() - innerStartTime, true);
+    }
+
+    /** hide the power's line, once, before the loading */
+    public void hidePowerLine() {
+        if (!innerView) return;
+        icon = ICON_POWER;
+        showIcon();
+        // the loading round repeats, the line is hidden once
+        timeline.addOnce(INNER_HIDE_LINE, 0, POWER_LINE_DURATION);
+    }
+
+    /**
+     * a round of the loading
+     * @param ratio acceleration ratio of the power's arc, see {@link Kinematics#innerLoadingRatio(long)}
+     * @param loop repeat the round, the rest between two rounds is the delay
+     */
+    public void loading(long duration, long delay, float ratio, boolean loop) {
+        final Frame frame = this.frame;
+        frame.start = 0.0f;
+        frame.end = 360.0f;
+        frame.focusOnEnd = false;
+        loading(duration, delay, ratio, loop, 0);
+    }
+
+    /**
+     * a round of the loading which ends by showing the check mark.
+     * A determinate loading first fills the circle from the progress, so the round doesn't jump to the full circle.
+     */
+    public void succeed(long duration, long delay, float ratio) {
+        nextIcon = ICON_SUCCESS;
+        final MotionProfile round = MotionProfile.loading(duration, delay);
+        final float peak = round.getPeakVelocity();
+        final float remaining = determinate ? 360.0f * (1 - progress) : 0;
+
+        if (remaining <= 0 || peak <= 0) {
+            loading(duration, delay, ratio, false);
+            return;
+        }
+
+        // the end of the arc slows down from the speed of the progress to the full circle, no faster than the round
+        fillFrom = 360.0f - remaining;
+        fillV = Math.min(progressV, peak);
+        final long fillDuration = (long) Math.ceil(2 * remaining / peak);
+        timeline.add(PROGRESS_FILL, 0, fillDuration);
+        loading(duration, delay, ratio, false, fillDuration);
+    }
+
+    private void loading(long duration, long delay, float ratio, boolean loop, long startTime) {
+        profile = MotionProfile.loading(duration, delay);
+        timeline.add(LOADING, startTime, profile.getDuration());
+
+        // the loading loop rewinds itself, the round ends and the delay passes on the same timeline
+        looping = loop;
+        if (loop) {
+            timeline.setRepeatPeriod(profile.getPeriod());
+            if (determinate) showProgress();
+        }
+
+        if (innerView)
+            scheduleInnerLoading(startTime + POWER_LINE_DURATION, profile.getDuration(), delay, ratio);
+    }
+
+    /** the reloading motion of the main circle */
+    public void reload(long duration) {
+        frame.start = 0.0f;
+        frame.end = 360.0f;
+
+        profile = MotionProfile.reload(duration);
+        timeline.add(RELOAD, 0, profile.getDuration());
+    }
+
+    /** show the power's line back after the loading */
+    public void backFromLoading() {
+        frame.start = 0.0f;
+        frame.end = 360.0f;
+
+        if (!innerView) return;
+        icon = ICON_POWER;
+        showIcon();
+        timeline.add(INNER_SHOW_LINE, 0, POWER_LINE_DURATION);
+    }
+
+    /** replace the check mark by the power icon, along with {@link #reload(long)} */
+    public void reloadIcon(long duration) {
+        if (!innerView) return;
+        final Frame frame = this.frame;
+        frame.innerStart = 0;
+        frame.innerEnd = 0;
+        icon = ICON_SUCCESS;
+        showIcon();
+        icon = ICON_POWER;
+
+        final long total = duration * 2;
+        final long lineDuration = total / 8;
+
+        final long deltaT = total - (lineDuration * 2);
+        innerProfile = MotionProfile.innerReload(deltaT);
+
+        // the power's line appears as soon as the arc passes zero degree
+        final long powerLineStart = deltaT * 2 / 3 + 1;
+
+        timeline.add(INNER_RELOAD_LINE_2, 0, lineDuration);
+        timeline.add(INNER_RELOAD_LINE_1, lineDuration, lineDuration);
+        timeline.add(INNER_RELOAD_ARC, lineDuration * 2, deltaT);
+        timeline.add(INNER_RELOAD_POWER_LINE, lineDuration * 2 + powerLineStart, deltaT / 4);
+    }
+
+    /** @return true if the repeating loading is running */
+    public boolean isLooping() {
+        return looping;
+    }
+
+    // DETERMINATE PROGRESS
+
+    /**
+     * the main circle of the loading follows the progress instead of the round
+     * @param velocity speed of the progress in degrees per millisecond
+     */
+    public void setProgress(float progress, float velocity) {
+        determinate = true;
+        this.progress = progress;
+        this.progressV = velocity;
+        if (looping) showProgress();
+    }
+
+    /** the loading is indeterminate again, the next frame of the round moves the main circle */
+    public void clearProgress() {
+        determinate = false;
+        progress = 0;
+        progressV = 0;
+        if (looping) frame.endV = 0;
+    }
+
+    public boolean isDeterminate() {
+        return determinate;
+    }
+
+    private void showProgress() {
+        final Frame frame = this.frame;
+        frame.start = 0.0f;
+        frame.end = 360.0f * progress;
+        frame.startV = 0;
+        // the trail of the progress is never longer than the trail of the loading
+        frame.endV = Math.min(progressV, profile.getPeakVelocity());
+        frame.focusOnEnd = true;
+    }
+
+    // SEGMENTS
+
+    private void scheduleIcon(long startTime, long duration, boolean alpha) {
+        if (!innerView) return;
+
+        if (alpha)
+            timeline.add(INNER_ALPHA, startTime, duration);
+
+        if (icon == ICON_POWER) {
+            timeline.add(INNER_SHOW_POWER, startTime, duration);
+        } else {
+            timeline.add(INNER_SHOW_SUCCESS_1, startTime, duration / 2);
+            timeline.add(INNER_SHOW_SUCCESS_2, startTime + duration / 2, duration / 2);
+        }
+    }
+
+    private void scheduleInnerLoading(long startTime, long maxDuration, long delay, float ratio) {
+        if (getNextIcon() == ICON_POWER) {
+            innerProfile = MotionProfile.innerPowerLoading(maxDuration, delay, ratio);
+            timeline.add(INNER_POWER_LOADING, startTime, innerProfile.getDuration());
+        } else {
+            innerProfile = MotionProfile.innerSuccessLoading(maxDuration);
+            final long duration = innerProfile.getDuration();
+            timeline.add(INNER_SUCCESS_LOADING, startTime, duration);
+            timeline.add(INNER_SHOW_SUCCESS_1, startTime + duration, duration / 2);
+            timeline.add(INNER_SHOW_SUCCESS_2, startTime + duration + duration / 2, duration / 2);
+        }
+    }
+
+    @Override
+    public void onSegmentStart(int segment) {
+        final Frame frame = this.frame;
+        switch (segment) {
+            case LOADING:
+                host.onRoundStart();
+                break;
+            case INNER_SHOW_POWER:
+                frame.innerStart = 45.0f;
+                frame.innerEnd = frame.innerStart;
+
+                frame.successLength = 0;
+                setPowerLine(0, 0);
+                break;
+            case INNER_SHOW_SUCCESS_1:
+                frame.innerStart = 0;
+                frame.innerEnd = 0;
+
+                setPowerLine(0, 0);
+                frame.successLength = 0;
+                break;
+            case INNER_SHOW_SUCCESS_2:
+                setPowerLine(0, 0);
+                frame.successLength = successLength1;
+                break;
+            case INNER_POWER_LOADING:
+                icon = ICON_POWER;
+                nextIcon = NO_ICON;
+                frame.innerStart = 45.0f;
+                frame.innerEnd = 360.0f - frame.innerStart;
+                frame.successLength = Math.min(frame.successLength, successLength1);
+                break;
+            case INNER_SUCCESS_LOADING:
+                icon = ICON_SUCCESS;
+                nextIcon = NO_ICON;
+                frame.innerStart = 45.0f;
+                frame.innerEnd = 360.0f - frame.innerStart;
+                break;
+            case INNER_RELOAD_POWER_LINE:
+                frame.successLength = 0;
+                setPowerLine(powerLength, powerLength);
+                break;
+        }
+    }
+
+    @Override
+    public void onSegmentUpdate(int segment, long time, long duration) {
+        if (segment != LOADING && segment != INNER_POWER_LOADING)
+            uiFrame = true;
+        // the round keeps timing the loading, but the progress moves the main circle
+        if (segment == LOADING && determinate && looping)
+            return;
+
+        final Frame frame = this.frame;
+        switch (segment) {
+            case SHOW:
+            case LOADING:
+            case RELOAD:
+                profile.evaluate(time, arc);
+                frame.start = arc.start;
+                frame.end = arc.end;
+                frame.startV = arc.startV;
+                frame.endV = arc.endV;
+                break;
+
+            case PROGRESS_FILL: {
+                // hermite from the progress and its speed to the full circle at rest
+                final float f = fraction(time, duration), d = duration;
+                final float remaining = 360.0f - fillFrom;
+                frame.start = 0.0f;
+                frame.end = fillFrom + fillV * d * (f - 2 * f * f + f * f * f) + remaining * (3 * f * f - 2 * f * f * f);
+                frame.startV = 0;
+                frame.endV = fillV * (1 - 4 * f + 3 * f * f) + remaining / d * (6 * f - 6 * f * f);
+                frame.focusOnEnd = true;
+                break;
+            }
+
+            case INNER_ALPHA:
+                frame.innerAlpha = (float) time / Math.max(1, duration);
+                break;
+            case INNER_SHOW_POWER: {
+                final float fraction = fraction(time, duration);
+                frame.innerEnd = frame.innerStart + (360.0f - (2 * frame.innerStart)) * fraction;
+                frame.innerEnd = Math.min(360.0f - frame.innerStart, frame.innerEnd);
+                setPowerLine(0, powerLength * Math.min(fraction, 1.0f));
+                break;
+            }
+            case INNER_SHOW_SUCCESS_1:
+                frame.successLength = successLength1 * fraction(time, duration);
+                break;
+            case INNER_SHOW_SUCCESS_2:
+                frame.successLength = successLength1 + successLength2 * fraction(time, duration);
+                break;
+            case INNER_HIDE_LINE:
+                setPowerLine(0, powerLength * (1 - fraction(time, duration)));
+                break;
+            case INNER_SHOW_LINE:
+            case INNER_RELOAD_POWER_LINE:
+                setPowerLine(powerLength - powerLength * fraction(time, duration), powerLength);
+                break;
+
+            case INNER_POWER_LOADING:
+            case INNER_SUCCESS_LOADING:
+            case INNER_RELOAD_ARC:
+                innerProfile.evaluate(time, arc);
+                frame.innerStart = arc.start;
+                frame.innerEnd = arc.end;
+                break;
+
+            case INNER_RELOAD_LINE_2:
+                frame.successLength = successLength1 + successLength2 * (1 - fraction(time, duration));
+                break;
+            case INNER_RELOAD_LINE_1:
+                frame.successLength = successLength1 * (1 - fraction(time, duration));
+                break;
+        }
+    }
+
+    @Override
+    public void onSegmentEnd(int segment) {
+        final Frame frame = this.frame;
+        switch (segment) {
+            case SHOW:
+                stop();
+                settle(icon);
+                host.onMotionEnd(MOTION_SHOW);
+                break;
+
+            case PROGRESS_FILL:
+                frame.end = 360.0f;
+                frame.endV = 0;
+                frame.focusOnEnd = false;
+                break;
+
+            case INNER_SHOW_SUCCESS_2:
+                frame.successLength = getSuccessLength();
+                break;
+            case INNER_HIDE_LINE:
+                setPowerLine(0, 0);
+                break;
+            case INNER_SHOW_LINE:
+                host.onMotionEnd(MOTION_SHOW_LINE);
+                break;
+
+            case LOADING:
+                host.onMotionEnd(MOTION_LOADING);
+                break;
+
+            case RELOAD:
+                frame.start = 0;
+                frame.end = 360;
+                host.onMotionEnd(MOTION_RELOAD);
+                break;
+
+            case INNER_RELOAD_LINE_2:
+                frame.successLength = successLength1;
+                break;
+            case INNER_RELOAD_LINE_1:
+                frame.successLength = 0;
+                break;
+            case INNER_RELOAD_ARC:
+                frame.innerStart = 45f;
+                frame.innerEnd = 315f;
+                break;
+        }
+    }
+
+    @Override
+    public void onFrame() {
+        final boolean uiFrame = this.uiFrame;
+        this.uiFrame = false;
+        host.onFrame(!uiFrame);
+    }
+
+    private void setPowerLine(float from, float to) {
+        frame.powerLineFrom = from;
+        frame.powerLineTo = to;
+    }
+
+    private float getSuccessLength() {
+        return successLength1 + successLength2;
+    }
+
+    /** return the linear fraction of the segment */
+    private static float fraction(long time, long duration) {
+        return duration <= 0 ? 1.0f : (float) time / duration;
+    }
+}
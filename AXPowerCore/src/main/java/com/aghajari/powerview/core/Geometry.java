@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * Geometry of the power indicator for the given frame and thicknesses, which doesn't depend on android.
+ * All endpoints are held in a single float array and updated in place,
+ * and nothing is recomputed unless the frame, the thicknesses or the inner size have been changed.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class Geometry {
+
+    /** the bounds of the main circle: left, top, right, bottom */
+    public static final int BOUNDS = 0;
+    /** the bounds of the innerView: left, top, right, bottom */
+    public static final int INNER_BOUNDS = 4;
+    /** the power's line: x, top, bottom */
+    public static final int POWER_LINE = 8;
+    /** the check mark, {@link Kinematics#SUCCESS_POINTS} values */
+    public static final int SUCCESS = 11;
+    /** the left and the top of the center square of the frame */
+    public static final int SQUARE = SUCCESS + Kinematics.SUCCESS_POINTS;
+
+    private static final int VALUES = SQUARE + 2;
+
+    private final float density;
+    private final float[] values = new float[VALUES];
+
+    private int left, top, right, bottom;
+    private float thickness, innerThickness, innerSize;
+    private int size = 0;
+    private boolean valid = false;
+
+    public Geometry(float density) {
+        this.density = density;
+    }
+
+    /**
+     * set the frame and the thicknesses, the center square of the frame is updated if any of them has been changed
+     * @return false if nothing has been changed and the geometry is still valid
+     */
+    public boolean setFrame(int left, int top, int right, int bottom, float thickness, float innerThickness) {
+        if (valid && this.left == left && this.top == top && this.right == right && this.bottom == bottom
+                && this.thickness == thickness && this.innerThickness == innerThickness)
+            return false;
+
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.thickness = thickness;
+        this.innerThickness = innerThickness;
+        valid = false;
+
+        final int width = right - left;
+        final int height = bottom - top;
+        size = Math.min(width, height);
+        values[SQUARE] = left + (width - size) / 2f;
+        values[SQUARE + 1] = top + (height - size) / 2f;
+        return true;
+    }
+
+    /**
+     * calculate the endpoints of the frame
+     * @param innerSize size of the innerView for {@link #getSize()}, see {@link Kinematics#innerSize(int, float, float)}
+     * @return false if the geometry was already valid for this inner size
+     */
+    public boolean layout(float innerSize) {
+        if (valid && this.innerSize == innerSize) return false;
+        this.innerSize = innerSize;
+        valid = true;
+
+        final float[] values = this.values;
+        final float left = values[SQUARE];
+        final float top = values[SQUARE + 1];
+
+        values[BOUNDS] = left + thickness;
+        values[BOUNDS + 1] = top + thickness;
+        values[BOUNDS + 2] = left + size - thickness;
+        values[BOUNDS + 3] = top + size - thickness;
+
+        final float inset = (size - innerSize) / 2;
+        values[INNER_BOUNDS] = values[BOUNDS] + inset;
+        values[INNER_BOUNDS + 1] = top + innerThickness + inset;
+        values[INNER_BOUNDS + 2] = left + size - innerThickness - inset;
+        values[INNER_BOUNDS + 3] = top + size - innerThickness - inset;
+
+        final float innerLeft = values[INNER_BOUNDS], innerTop = values[INNER_BOUNDS + 1];
+        final float innerRight = values[INNER_BOUNDS + 2], innerBottom = values[INNER_BOUNDS + 3];
+        values[POWER_LINE] = (innerLeft + innerRight) / 2;
+        values[POWER_LINE + 1] = Kinematics.powerLineTop(innerTop, density);
+        values[POWER_LINE + 2] = Kinematics.powerLineBottom((innerTop + innerBottom) / 2, density);
+
+        Kinematics.successLines(innerLeft, innerTop, innerRight, innerBottom, values, SUCCESS);
+        return true;
+    }
+
+    /** the next {@link #setFrame(int, int, int, int, float, float)} recomputes the geometry */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /** @return size of the center square of the frame */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return density which the fixed lengths are scaled by */
+    public float getDensity() {
+        return density;
+    }
+
+    /** @return the value at the index, see the constants of this class */
+    public float get(int index) {
+        return values[index];
+    }
+
+    /** @return the array which holds all values, it must not be modified */
+    public float[] getValues() {
+        return values;
+    }
+}
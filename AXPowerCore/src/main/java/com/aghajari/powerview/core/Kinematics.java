@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * Motion and geometry math of the power indicator which doesn't depend on android,
+ * lengths are in pixels and angles are in degrees.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class Kinematics {
+
+    /** the start, the corner and the end points of the check mark, as x and y pairs */
+    public static final int SUCCESS_POINTS = 6;
+
+    private Kinematics() {
+    }
+
+    /** @return acceleration ratio of the power's arc while loading */
+    public static float innerLoadingRatio(long indeterminateDuration) {
+        final long deltaT = (700 - indeterminateDuration)/100;
+        return (float) Math.max((0.1f - (deltaT*0.02)),0.005);
+    }
+
+    /**
+     * calculate length of the velocity trail of an arc's edge
+     * @param velocity velocity of the edge, degrees per millisecond
+     * @param focused whether the animation is focused on this edge, its trail is longer
+     * @param step size of the trail, the trail of each step is twice as long as the previous one
+     * @return length of the trail in degrees
+     */
+    public static float trailLength(float velocity, boolean focused, int step) {
+        return (focused ? 15.0f : 5.0f) * (1 << (step - 1)) * velocity;
+    }
+
+    /** @return size of the innerView in a circle of the given size */
+    public static float innerSize(int size, float density, float innerThickness) {
+        return (size / 3f) + (density * (innerThickness / 2));
+    }
+
+    /** @return the top of the power's line */
+    public static float powerLineTop(float innerTop, float density) {
+        return innerTop - (density * 4);
+    }
+
+    /** @return the bottom of the power's line */
+    public static float powerLineBottom(float innerCenterY, float density) {
+        return innerCenterY + (density * 2);
+    }
+
+    /**
+     * calculate the check mark of the success state in the inner bounds
+     * @param points receives {@link #SUCCESS_POINTS} values: start x, start y, corner x, corner y, end x, end y
+     */
+    public static void successLines(float left, float top, float right, float bottom, float[] points) {
+        successLines(left, top, right, bottom, points, 0);
+    }
+
+    /**
+     * calculate the check mark of the success state in the inner bounds
+     * @param points receives {@link #SUCCESS_POINTS} values from the offset
+     */
+    public static void successLines(float left, float top, float right, float bottom, float[] points, int offset) {
+        final float cornerX = (left + right) / 2 - ((right - left) / 6);
+        final float cornerY = bottom - ((bottom - top) / 5);
+
+        points[offset] = left;
+        points[offset + 1] = cornerY - (cornerX - left);
+        points[offset + 2] = cornerX;
+        points[offset + 3] = cornerY;
+        points[offset + 4] = right;
+        points[offset + 5] = cornerY + (cornerX - right);
+    }
+}
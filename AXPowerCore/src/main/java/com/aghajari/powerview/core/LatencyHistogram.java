@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * A histogram of latencies with a fixed set of log-linear buckets,
+ * values below 16 are exact and larger ones are kept with 12.5% precision.
+ * Recording never allocates, so it may happen on every frame.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class LatencyHistogram {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // values above 2^31 share the last bucket
+    private static final int MAX_MSB = 30;
+    private static final int BUCKETS = EXACT + (MAX_MSB - 3) * SUB_BUCKETS;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count, sum, max;
+
+    /** record a latency, negative values are recorded as zero */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /** @return number of the recorded latencies */
+    public long getCount() {
+        return count;
+    }
+
+    /** @return the largest recorded latency */
+    public long getMax() {
+        return max;
+    }
+
+    /** @return average of the recorded latencies */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the latency which the given percent of the recorded ones don't exceed,
+     * the upper bound of its bucket, or zero if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /** remove all recorded latencies */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = 0;
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private static int index(long value) {
+        if (value < EXACT) return (int) value;
+        final int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb > MAX_MSB) return BUCKETS - 1;
+        final int sub = (int) (value >> (msb - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (msb - 4) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < EXACT) return index;
+        final int msb = 4 + (index - EXACT) / SUB_BUCKETS;
+        final int sub = (index - EXACT) % SUB_BUCKETS;
+        if (msb == MAX_MSB && sub == SUB_BUCKETS - 1) return Long.MAX_VALUE;
+        return ((long) (SUB_BUCKETS + sub + 1) << (msb - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * Immutable kinematics of an arc, compiled once per configuration and cached.
+ * The start and the end of the arc are piecewise polynomials of the time,
+ * so evaluating a frame is just a few float multiplications.
+ * Angles are in degrees (zero is the top of the circle), times are in milliseconds.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class MotionProfile {
+
+    /** arc data of a single frame */
+    public static final class Frame {
+        public float start, end;
+        public float startV, endV;
+    }
+
+    // PROFILES
+    static final int SHOW = 0;
+    static final int LOADING = 1;
+    static final int RELOAD = 2;
+    static final int INNER_POWER_LOADING = 3;
+    static final int INNER_SUCCESS_LOADING = 4;
+    static final int INNER_RELOAD = 5;
+
+    private final Track startTrack;
+    private final Track endTrack;
+    private final long duration;
+    private final long period;
+    private final float peakVelocity;
+
+    private MotionProfile(Track startTrack, Track endTrack, long duration, long period) {
+        this.startTrack = startTrack;
+        this.endTrack = endTrack;
+        this.duration = duration;
+        this.period = period;
+        peakVelocity = Math.max(startTrack.peakVelocity(), endTrack.peakVelocity());
+    }
+
+    /** @return duration of the motion */
+    public long getDuration() {
+        return duration;
+    }
+
+    /** @return duration of the motion and the rest after that */
+    public long getPeriod() {
+        return period;
+    }
+
+    /** @return the highest speed of the edges of the arc, degrees per millisecond */
+    public float getPeakVelocity() {
+        return peakVelocity;
+    }
+
+    /** evaluate the arc at the given time */
+    public void evaluate(long time, Frame frame) {
+        final float t = Math.min(time, duration);
+        int segment = startTrack.find(t);
+        frame.start = startTrack.position(segment, t);
+        frame.startV = startTrack.velocity(segment, t);
+
+        segment = endTrack.find(t);
+        frame.end = endTrack.position(segment, t);
+        frame.endV = endTrack.velocity(segment, t);
+    }
+
+    // CACHE
+
+    private static final int CACHE_SIZE = 16;
+    private static final int[] cacheKinds = new int[CACHE_SIZE];
+    private static final long[] cacheKeys1 = new long[CACHE_SIZE];
+    private static final long[] cacheKeys2 = new long[CACHE_SIZE];
+    private static final MotionProfile[] cache = new MotionProfile[CACHE_SIZE];
+    private static int cacheIndex = 0;
+
+    private static synchronized MotionProfile find(int kind, long key1, long key2) {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cache[i] != null && cacheKinds[i] == kind
+                    && cacheKeys1[i] == key1 && cacheKeys2[i] == key2)
+                return cache[i];
+        }
+        return null;
+    }
+
+    private static synchronized MotionProfile put(int kind, long key1, long key2, MotionProfile profile) {
+        cacheKinds[cacheIndex] = kind;
+        cacheKeys1[cacheIndex] = key1;
+        cacheKeys2[cacheIndex] = key2;
+        cache[cacheIndex] = profile;
+        cacheIndex = (cacheIndex + 1) % CACHE_SIZE;
+        return profile;
+    }
+
+    /** showing animation of the main circle */
+    public static MotionProfile show(long showDuration) {
+        MotionProfile profile = find(SHOW, showDuration, 0);
+        return profile != null ? profile : put(SHOW, showDuration, 0, compileShow(showDuration));
+    }
+
+    /** loading animation of the main circle, the rest between two rounds is the delay */
+    public static MotionProfile loading(long duration, long delay) {
+        MotionProfile profile = find(LOADING, duration, delay);
+        return profile != null ? profile : put(LOADING, duration, delay, compileLoading(duration, delay));
+    }
+
+    /** reloading animation of the main circle */
+    public static MotionProfile reload(long duration) {
+        MotionProfile profile = find(RELOAD, duration, 0);
+        return profile != null ? profile : put(RELOAD, duration, 0, compileReload(duration));
+    }
+
+    /** loading animation of the power's arc */
+    public static MotionProfile innerPowerLoading(long maxDuration, long delay, float ratio) {
+        final long key2 = (delay << 32) | (Float.floatToIntBits(ratio) & 0xFFFFFFFFL);
+        MotionProfile profile = find(INNER_POWER_LOADING, maxDuration, key2);
+        return profile != null ? profile :
+                put(INNER_POWER_LOADING, maxDuration, key2, compileInnerPowerLoading(maxDuration, delay, ratio));
+    }
+
+    /** hiding animation of the power's arc before showing the success lines */
+    public static MotionProfile innerSuccessLoading(long maxDuration) {
+        MotionProfile profile = find(INNER_SUCCESS_LOADING, maxDuration, 0);
+        return profile != null ? profile :
+                put(INNER_SUCCESS_LOADING, maxDuration, 0, compileInnerSuccessLoading(maxDuration));
+    }
+
+    /** showing animation of the power's arc after the success lines */
+    public static MotionProfile innerReload(long duration) {
+        MotionProfile profile = find(INNER_RELOAD, duration, 0);
+        return profile != null ? profile : put(INNER_RELOAD, duration, 0, compileInnerReload(duration));
+    }
+
+    // COMPILERS
+
+    public static final long SHOW_STEP_DURATION = 80;
+    public static final float SHOW_LENGTH = 10.0f;
+    private static final float SHOW_DELTA = (360.0f - SHOW_LENGTH) / 2;
+
+    private static MotionProfile compileShow(long showDuration) {
+        final long d = SHOW_STEP_DURATION;
+        final long duration = (showDuration - d * 2) / 2;
+        final float a = (SHOW_DELTA * 2) / (duration * (float) duration);
+        final float v0 = a * duration;
+        final float a2 = -(v0 * v0) / (2 * SHOW_DELTA);
+        final long duration2 = (long) Math.sqrt((SHOW_DELTA * 2) / -a2);
+
+        // decelerated steps, x = x0 + delta * (2f - f^2)
+        final float v = SHOW_LENGTH / d;
+        final float v2 = (90.0f - SHOW_LENGTH) / d;
+        final Track.Builder start = new Track.Builder()
+                .add(0, d, -90.0f, 2 * v, -v / d, 0, v / d)
+                .add(d, d, -90.0f + SHOW_LENGTH, 2 * v2, -v2 / d, 0, v2 / d)
+                .add(d * 2, duration + duration2, 0, 0, 0, 0, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, d, -90.0f + SHOW_LENGTH, 2 * v, -v / d, 0, v / d)
+                .add(d, d, -90.0f + SHOW_LENGTH * 2, 2 * v2, -v2 / d, 0, v2 / d)
+                .add(d * 2, duration, SHOW_LENGTH, 0, 0.5f * a, 0, 0)
+                .add(d * 2 + duration, duration2, SHOW_LENGTH + SHOW_DELTA, v0, 0.5f * a2, 0, 0);
+
+        final long total = d * 2 + duration + duration2;
+        return new MotionProfile(start.build(), end.build(), total, total);
+    }
+
+    private static MotionProfile compileLoading(long duration, long delay) {
+        final float a = ((360) * 2) / (duration * (float) duration);
+        final float v0 = a * duration;
+        final float a2 = -(v0 * v0) / (2 * 110);
+        final long duration2 = (long) Math.sqrt((110 * 2) / -a2);
+
+        final long end_duration = duration + duration2;
+        final float a_end = (160 * 2) / (end_duration * (float) end_duration);
+
+        //NextRound
+        final long duration3 = duration + duration2;
+        final float v = (float) (360 - 110) / duration3;
+
+        float deltaX = (360 + (360 - 160));
+        deltaX = deltaX * 3 / 4;
+        final long duration4 = duration3 * 3 / 4;
+        final float a_end2 = ((deltaX - (v * duration4)) * 2) / (duration4 * (float) duration4);
+
+        final float v02 = a_end2 * duration4;
+        final float a_end3 = -(v02 * v02) / (2 * deltaX / 3);
+        final long duration5 = (long) Math.sqrt((2 * deltaX / 3) / -a_end3);
+
+        final float last_start = 360.0f + 0.5f * a2 * duration2 * duration2 + v0 * duration2;
+        final float last_end = 360.0f + 0.5f * a_end * end_duration * end_duration;
+        final float last_end2 = last_end + 0.5f * a_end2 * duration4 * duration4 + v * duration4;
+
+        final Track.Builder start = new Track.Builder()
+                .add(0, duration, 0, 0, 0.5f * a, 0, a)
+                .add(duration, duration2, 360.0f, v0, 0.5f * a2, v0, a2)
+                .add(end_duration, duration3, last_start, v, 0, v, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, end_duration, 360.0f, 0, 0.5f * a_end, 0, a_end)
+                .add(end_duration, duration4, last_end, v, 0.5f * a_end2, v, a_end2)
+                .add(end_duration + duration4, duration5, last_end2, v02, 0.5f * a_end3, v02, a_end3);
+
+        final long total = end_duration + duration4 + duration5;
+        return new MotionProfile(start.build(), end.build(), total, total + delay);
+    }
+
+    private static MotionProfile compileReload(long duration) {
+        final long half = duration / 2;
+
+        final float target1 = 250.0f;
+        final float deltaX = 360.0f + target1 - 5.0f;
+        final float a = deltaX / ((duration / 2f) * (duration / 2f));
+        final float maxV = a * duration / 2;
+        final float maxStartV = target1 / (duration / 2f);
+
+        final float target2 = 360 - target1;
+        final float deltaX2 = 360 + target2;
+        final float a2 = deltaX2 / ((duration / 2f) * (duration / 2f));
+        final float maxV2 = a2 * duration / 2;
+
+        // the second round ends at -366 but stops at -360
+        final float v = -target1 / duration;
+        final float v2 = -121.0f / duration;
+        final long clamp = (long) (115.0f / -v2);
+
+        final Track.Builder start = new Track.Builder()
+                .add(0, half, 0, v, 0, 0, maxStartV / (duration / 2f))
+                .add(half, duration - half, v * half, v, 0, maxStartV, -maxStartV / (duration / 2f))
+                .add(duration, half, -250.0f, 0, -0.5f * a2, 0, 0)
+                .add(duration + half, duration - half, -250.0f - deltaX2 / 2, -maxV2, 0.5f * a2, 0, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, half, 360.0f, 0, -0.5f * a, 0, a)
+                .add(half, duration - half, 360.0f - deltaX / 2, -maxV, 0.5f * a, maxV, -a)
+                .add(duration, clamp, -245.0f, v2, 0, 0, 0)
+                .add(duration + clamp, duration - clamp, -360.0f, 0, 0, 0, 0);
+
+        return new MotionProfile(start.build(), end.build(), duration * 2, duration * 2);
+    }
+
+    private static MotionProfile compileInnerPowerLoading(long maxDuration, long delay, float ratio) {
+        final long duration = (maxDuration - (delay * 4)) / 2;
+        final float v = 315.0f / duration;
+
+        final float aD = 200;
+        final long deltaT = (long) (aD / v);
+        final long secondDuration = duration - deltaT;
+
+        final float deltaD = 360 - (aD - 45);
+        final float a = (deltaD - (v * secondDuration)) * 2 / (secondDuration * (float) secondDuration);
+
+        //Next round
+
+        final float deltaX = 405;
+        final float deltaX_back = deltaX * ratio;
+        final long duration_back = (long) (duration * ratio);
+        final float deltaX_back2 = deltaX - deltaX_back;
+        final long duration_back2 = duration - duration_back;
+        final float a_back1 = duration_back > 0 ? deltaX_back * 2 / (duration_back * (float) duration_back) : 0;
+        final float max_v_back = a_back1 * duration_back;
+        final float a_back2 = (deltaX_back2 - (max_v_back * duration_back2)) * 2 / (duration_back2 * (float) duration_back2);
+
+        final long next = duration + delay;
+        final Track.Builder start = new Track.Builder()
+                .add(0, deltaT, 45.0f, -v, 0, 0, 0)
+                .add(deltaT, secondDuration, 45.0f - aD, -v, -0.5f * a, 0, 0)
+                .add(next, duration, 0, -315.0f / duration, 0, 0, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, duration, 315.0f, -v, 0, 0, 0)
+                .add(next, duration_back, 360.0f, 0, -0.5f * a_back1, 0, 0)
+                .add(next + duration_back, duration_back2, 360.0f - deltaX_back, -max_v_back, -0.5f * a_back2, 0, 0);
+
+        return new MotionProfile(start.build(), end.build(), next + duration, next + duration);
+    }
+
+    private static MotionProfile compileInnerSuccessLoading(long maxDuration) {
+        final long duration = maxDuration / 3;
+        final float target = -90;
+        final float vStart = (Math.abs(target) + 45.0f) / duration;
+        final float endDeltaX = 315.0f + Math.abs(target);
+        final float aEnd = endDeltaX * 2 / (duration * (float) duration);
+
+        final Track.Builder start = new Track.Builder()
+                .add(0, duration, 45.0f, -vStart, 0, 0, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, duration, 315.0f, 0, -0.5f * aEnd, 0, 0);
+
+        return new MotionProfile(start.build(), end.build(), duration, duration);
+    }
+
+    private static MotionProfile compileInnerReload(long duration) {
+        final long half = duration / 2;
+        final float v3 = 135f / duration;
+        final float deltaX = 540f / 2;
+        final float a = deltaX / ((duration / 2f) * (duration / 2f));
+        final float maxV = a * (duration / 2f);
+
+        final Track.Builder start = new Track.Builder()
+                .add(0, duration, -90.0f, v3, 0, 0, 0);
+        final Track.Builder end = new Track.Builder()
+                .add(0, half, -90.0f, 0, 0.5f * a, 0, 0)
+                .add(half, duration - half, -90.0f + deltaX, maxV, -0.5f * a, 0, 0);
+
+        return new MotionProfile(start.build(), end.build(), duration, duration);
+    }
+
+    /**
+     * Piecewise polynomial of an arc's edge,
+     * position = p0 + p1 * t + p2 * t^2 and velocity = v0 + v1 * t
+     * where t is the local time of the segment.
+     * The edge keeps its last value between two segments.
+     */
+    private static final class Track {
+        private static final int STRIDE = 7;
+
+        private final float[] data;
+        private final int count;
+
+        private Track(float[] data, int count) {
+            this.data = data;
+            this.count = count;
+        }
+
+        /** @return offset of the last segment which has been started at the given time */
+        int find(float time) {
+            int i = count - 1;
+            while (i > 0 && time < data[i * STRIDE])
+                i--;
+            return i * STRIDE;
+        }
+
+        float position(int offset, float time) {
+            final float t = localTime(offset, time);
+            return data[offset + 2] + t * (data[offset + 3] + t * data[offset + 4]);
+        }
+
+        float velocity(int offset, float time) {
+            return data[offset + 5] + localTime(offset, time) * data[offset + 6];
+        }
+
+        /** @return the highest absolute velocity, the velocity of a segment is linear so it peaks at an end */
+        float peakVelocity() {
+            float peak = 0;
+            for (int offset = 0; offset < count * STRIDE; offset += STRIDE) {
+                final float v0 = data[offset + 5];
+                final float v1 = v0 + data[offset + 6] * data[offset + 1];
+                peak = Math.max(peak, Math.max(Math.abs(v0), Math.abs(v1)));
+            }
+            return peak;
+        }
+
+        private float localTime(int offset, float time) {
+            return Math.max(0, Math.min(time - data[offset], data[offset + 1]));
+        }
+
+        static final class Builder {
+            private float[] data = new float[STRIDE * 4];
+            private int count = 0;
+
+            Builder add(long from, long duration, float p0, float p1, float p2, float v0, float v1) {
+                if ((count + 1) * STRIDE > data.length) {
+                    float[] newData = new float[data.length * 2];
+                    System.arraycopy(data, 0, newData, 0, data.length);
+                    data = newData;
+                }
+                final int offset = count * STRIDE;
+                data[offset] = from;
+                data[offset + 1] = Math.max(0, duration);
+                data[offset + 2] = p0;
+                data[offset + 3] = p1;
+                data[offset + 4] = p2;
+                data[offset + 5] = v0;
+                data[offset + 6] = v1;
+                count++;
+                return this;
+            }
+
+            Track build() {
+                final float[] track = new float[count * STRIDE];
+                System.arraycopy(data, 0, track, 0, track.length);
+                return new Track(track, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview.core;
+
+/**
+ * A timeline of animation segments, each segment has a start time and a duration in milliseconds
+ * and gets evaluated by the target on every tick, so no animator or listener is allocated per transition.
+ * A repeating timeline rewinds itself after each period, so an infinite loop never reschedules anything.
+ * The timeline doesn't own a clock, frame times are given to {@link #tick(long, long)},
+ * so any clock can drive it and {@link #seekTo(long)} evaluates it at an exact time.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class Timeline {
+
+    public interface Target {
+        /** called once, when the timeline reaches the segment's start time */
+        void onSegmentStart(int segment);
+        /** called on every frame while the segment is active, time is clamped to the duration */
+        void onSegmentUpdate(int segment, long time, long duration);
+        /** called once, right after the last update of the segment */
+        void onSegmentEnd(int segment);
+        /** called after all active segments have been evaluated for the current frame */
+        void onFrame();
+    }
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final byte PENDING = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte ENDED = 2;
+
+    private final Target target;
+
+    // SEGMENTS
+    private final int[] segments = new int[MAX_SEGMENTS];
+    private final long[] startTimes = new long[MAX_SEGMENTS];
+    private final long[] durations = new long[MAX_SEGMENTS];
+    private final byte[] status = new byte[MAX_SEGMENTS];
+    private final boolean[] once = new boolean[MAX_SEGMENTS];
+    private int count = 0;
+
+    // CLOCK
+    private long period = 0;
+    private long startNanos = 0;
+    private boolean anchored = false;
+    private long seekTime = 0;
+    private long time = 0;
+    private boolean running = false;
+    private boolean aligning = false;
+    private int generation = 0;
+    private boolean finished, updated, framePending;
+
+    public Timeline(Target target) {
+        this.target = target;
+    }
+
+    /** schedule a segment on the timeline, call {@link #start()} once all segments are added */
+    public void add(int segment, long startTime, long duration) {
+        add(segment, startTime, duration, false);
+    }
+
+    /**
+     * schedule a segment which runs in the first round only, a repeating timeline doesn't rewind it.
+     * It's dropped at the end of the first round, so it should end within the period.
+     */
+    public void addOnce(int segment, long startTime, long duration) {
+        add(segment, startTime, duration, true);
+    }
+
+    private void add(int segment, long startTime, long duration, boolean once) {
+        if (count == MAX_SEGMENTS)
+            throw new IllegalStateException("too many animation segments");
+
+        segments[count] = segment;
+        startTimes[count] = startTime;
+        durations[count] = Math.max(0, duration);
+        status[count] = PENDING;
+        this.once[count] = once;
+        count++;
+    }
+
+    /** repeat the timeline every period (milliseconds), zero disables repeating */
+    public void setRepeatPeriod(long period) {
+        this.period = Math.max(0, period);
+    }
+
+    /**
+     * start the timeline from zero and evaluate its first frame,
+     * does nothing if the timeline is running or there is no scheduled segment
+     */
+    public void start() {
+        if (count == 0 || running) return;
+        running = true;
+        aligning = true;
+        anchored = false;
+        seekTime = 0;
+        dispatch(0);
+    }
+
+    /**
+     * jump to the given time (milliseconds) and evaluate the timeline from zero up to there,
+     * so the result doesn't depend on the frames before. The next tick continues from this time.
+     * A repeating timeline is seeked within its round.
+     */
+    public void seekTo(long time) {
+        if (count == 0) return;
+        time = Math.max(0, time);
+        if (period > 0) time %= period;
+
+        running = true;
+        aligning = false;
+        anchored = false;
+        seekTime = time;
+        for (int i = 0; i < count; i++)
+            status[i] = PENDING;
+        dispatch(time);
+    }
+
+    /** the next tick continues from the current time, call it once the frame times come from another clock */
+    public void rebase() {
+        if (!anchored) return;
+        aligning = false;
+        anchored = false;
+        seekTime = time;
+    }
+
+    /**
+     * the current time of the timeline is at the given frame time, so the next tick advances it by the time since.
+     * Call it after {@link #start()} or {@link #seekTo(long)} if the clock is known, the first tick then moves the timeline too.
+     */
+    public void rebase(long frameTimeNanos) {
+        if (!running) return;
+        aligning = false;
+        anchored = true;
+        startNanos = frameTimeNanos - time * 1000000;
+    }
+
+    /** cancel the timeline and remove all segments */
+    public void cancel() {
+        generation++;
+        count = 0;
+        period = 0;
+        running = false;
+        aligning = false;
+        framePending = false;
+        seekTime = 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** @return number of the scheduled segments which haven't ended yet */
+    public int getActiveSegmentCount() {
+        if (!running) return 0;
+        int active = 0;
+        for (int i = 0; i < count; i++) {
+            if (status[i] != ENDED) active++;
+        }
+        return active;
+    }
+
+    /** @return the last evaluated time of the timeline in milliseconds */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * advance the timeline to the given frame time,
+     * the first tick after {@link #start()} is time zero and the first one after {@link #seekTo(long)} is the seeked time,
+     * unless the timeline has been rebased on a frame time
+     * @param epochNanos a repeating timeline joins the grid of this epoch on its first tick after {@link #start()},
+     *                   or -1 to start from zero
+     */
+    public void tick(long frameTimeNanos, long epochNanos) {
+        if (!running) return;
+        if (!anchored) {
+            anchored = true;
+            startNanos = frameTimeNanos - seekTime * 1000000;
+            // a new loop seeks into the current round of the grid once, its rounds then repeat right away
+            if (aligning && period > 0 && epochNanos >= 0 && frameTimeNanos >= epochNanos)
+                startNanos = frameTimeNanos - (frameTimeNanos - epochNanos) % (period * 1000000);
+        }
+        aligning = false;
+
+        long time = (frameTimeNanos - startNanos) / 1000000;
+        if (period > 0 && time >= period) {
+            // complete the current round before rewinding the timeline
+            final int generation = this.generation;
+            updated = false;
+            this.time = period;
+            if (!evaluate(period, generation)) return;
+            if (updated) framePending = true;
+
+            final long periodNanos = period * 1000000;
+            startNanos += ((frameTimeNanos - startNanos) / periodNanos) * periodNanos;
+            time = (frameTimeNanos - startNanos) / 1000000;
+            for (int i = 0; i < count; i++)
+                status[i] = once[i] ? ENDED : PENDING;
+        }
+        dispatch(time);
+    }
+
+    /** notify the target if the last tick has changed anything */
+    public void flush() {
+        if (framePending) {
+            framePending = false;
+            target.onFrame();
+        }
+    }
+
+    /** evaluate the timeline at the given time */
+    private void dispatch(long time) {
+        final int generation = this.generation;
+        updated = false;
+        this.time = time;
+
+        if (!evaluate(time, generation)) return;
+        if (updated) framePending = true;
+        if (finished && period == 0)
+            running = false;
+    }
+
+    /**
+     * evaluate every reached segment at the given time of the timeline
+     * @return false if the timeline has been changed by the target
+     */
+    private boolean evaluate(long time, int generation) {
+        finished = true;
+
+        for (int i = 0; i < count; i++) {
+            if (status[i] == ENDED) continue;
+            if (time < startTimes[i]) {
+                finished = false;
+                continue;
+            }
+
+            final int segment = segments[i];
+            if (status[i] == PENDING) {
+                status[i] = ACTIVE;
+                target.onSegmentStart(segment);
+                if (generation != this.generation) return false;
+            }
+
+            final long duration = durations[i];
+            final long local = Math.min(time - startTimes[i], duration);
+            target.onSegmentUpdate(segment, local, duration);
+            updated = true;
+            if (generation != this.generation) return false;
+
+            if (local >= duration) {
+                status[i] = ENDED;
+                target.onSegmentEnd(segment);
+                if (generation != this.generation) return false;
+            } else {
+                finished = false;
+            }
+        }
+        return true;
+    }
+}
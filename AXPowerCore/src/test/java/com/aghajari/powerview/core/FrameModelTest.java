@@ -0,0 +1,170 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the frames which the motions of the indicator compute.
+ */
+public class FrameModelTest {
+
+    private static final long MS = 1000000L;
+    private static final float POWER_LENGTH = 30, SUCCESS_LENGTH_1 = 10, SUCCESS_LENGTH_2 = 20;
+
+    @Test
+    public void loading_frameFollowsTheMotionProfile() {
+        Host host = new Host();
+        host.model.settle(FrameModel.ICON_POWER);
+        host.model.hidePowerLine();
+        host.model.loading(600, 80, Kinematics.innerLoadingRatio(600), true);
+        host.start();
+
+        MotionProfile profile = MotionProfile.loading(600, 80);
+        MotionProfile.Frame expected = new MotionProfile.Frame();
+        for (long t = 16; t < profile.getDuration(); t += 16) {
+            host.step(t);
+            profile.evaluate(t, expected);
+            FrameModel.Frame frame = host.model.getFrame();
+            assertEquals(expected.start, frame.start, 0.001f);
+            assertEquals(expected.end, frame.end, 0.001f);
+            assertEquals(expected.startV, frame.startV, 0.001f);
+            assertEquals(expected.endV, frame.endV, 0.001f);
+        }
+    }
+
+    @Test
+    public void loading_hidesThePowerLineInTheFirstRoundOnly() {
+        Host host = new Host();
+        host.model.settle(FrameModel.ICON_POWER);
+        host.model.hidePowerLine();
+        host.model.loading(600, 80, Kinematics.innerLoadingRatio(600), true);
+        host.start();
+
+        host.step(FrameModel.POWER_LINE_DURATION / 2);
+        assertEquals(POWER_LENGTH / 2, host.model.getFrame().powerLineTo, 1f);
+        host.step(FrameModel.POWER_LINE_DURATION);
+        assertEquals(0, host.model.getFrame().powerLineTo, 0);
+
+        final long period = MotionProfile.loading(600, 80).getPeriod();
+        for (long t = FrameModel.POWER_LINE_DURATION; t < period * 3; t += 16) {
+            host.step(t);
+            assertEquals(0, host.model.getFrame().powerLineTo, 0);
+        }
+        assertEquals(3, host.rounds);
+    }
+
+    @Test
+    public void show_endsOnTheSettledFrame() {
+        Host host = new Host();
+        host.model.setIcon(FrameModel.ICON_SUCCESS);
+        host.model.show(400);
+        host.start();
+
+        host.step(200);
+        assertEquals(-1, host.ended);
+        host.step(MotionProfile.show(400).getDuration());
+
+        FrameModel.Frame frame = host.model.getFrame();
+        assertEquals(FrameModel.MOTION_SHOW, host.ended);
+        assertEquals(0, frame.start, 0);
+        assertEquals(360, frame.end, 0);
+        assertEquals(SUCCESS_LENGTH_1 + SUCCESS_LENGTH_2, frame.successLength, 0);
+        assertEquals(0, frame.powerLineTo, 0);
+        assertEquals(1, frame.innerAlpha, 0);
+    }
+
+    @Test
+    public void setIconLengths_rescalesTheRevealedLines() {
+        Host host = new Host();
+        host.model.settle(FrameModel.ICON_POWER);
+        host.model.hidePowerLine();
+        host.model.loading(600, 80, Kinematics.innerLoadingRatio(600), true);
+        host.start();
+        host.step(FrameModel.POWER_LINE_DURATION / 2);
+        final float revealed = host.model.getFrame().powerLineTo;
+
+        host.model.setIconLengths(POWER_LENGTH * 2, SUCCESS_LENGTH_1 * 2, SUCCESS_LENGTH_2 * 2);
+        assertEquals(revealed * 2, host.model.getFrame().powerLineTo, 0.001f);
+    }
+
+    @Test
+    public void progress_trailIsClampedToTheLoading() {
+        Host host = new Host();
+        host.model.settle(FrameModel.ICON_POWER);
+        host.model.loading(600, 80, Kinematics.innerLoadingRatio(600), true);
+        host.start();
+
+        host.model.setProgress(0.4f, 50);
+        FrameModel.Frame frame = host.model.getFrame();
+        assertEquals(144, frame.end, 0.001f);
+        assertEquals(MotionProfile.loading(600, 80).getPeakVelocity(), frame.endV, 0);
+    }
+
+    @Test
+    public void succeed_fillsTheCircleFromTheProgress() {
+        Host host = new Host();
+        host.model.setProgress(0.4f, 50);
+        host.model.settle(FrameModel.ICON_POWER);
+        host.model.hideLines();
+        host.model.succeed(400, 80, Kinematics.innerLoadingRatio(600));
+        host.start();
+
+        final float peak = MotionProfile.loading(400, 80).getPeakVelocity();
+        FrameModel.Frame frame = host.model.getFrame();
+        assertEquals(144, frame.end, 0.001f);
+        assertEquals(peak, frame.endV, 0.001f);
+
+        float end = frame.end;
+        long t = 0;
+        while (frame.end < 360 && t < 1000) {
+            host.step(++t);
+            assertTrue(frame.end >= end);
+            assertTrue(frame.endV <= peak * 1.5f);
+            end = frame.end;
+        }
+        assertEquals(360, frame.end, 0.001f);
+        assertEquals(1, host.rounds);
+        assertEquals(-1, host.ended);
+
+        host.step(t + 2000);
+        assertEquals(FrameModel.MOTION_LOADING, host.ended);
+        assertEquals(FrameModel.ICON_SUCCESS, host.model.getIcon());
+    }
+
+    private static class Host implements FrameModel.Host {
+        final FrameModel model = new FrameModel(this);
+        int rounds = 0;
+        int ended = -1;
+
+        Host() {
+            model.setIconLengths(POWER_LENGTH, SUCCESS_LENGTH_1, SUCCESS_LENGTH_2);
+        }
+
+        void start() {
+            model.getTimeline().start();
+            model.getTimeline().tick(0, -1);
+        }
+
+        void step(long timeMs) {
+            model.getTimeline().tick(timeMs * MS, -1);
+            model.getTimeline().flush();
+        }
+
+        @Override
+        public void onRoundStart() {
+            rounds++;
+        }
+
+        @Override
+        public void onMotionEnd(int motion) {
+            ended = motion;
+            if (motion == FrameModel.MOTION_SHOW)
+                model.getTimeline().cancel();
+        }
+
+        @Override
+        public void onFrame(boolean loopOnly) {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the geometry model.
+ */
+public class GeometryTest {
+
+    private static final float DENSITY = 2;
+
+    @Test
+    public void layout_centersTheSquare() {
+        Geometry geometry = new Geometry(DENSITY);
+        assertTrue(geometry.setFrame(10, 20, 310, 220, 8, 6));
+        assertEquals(200, geometry.getSize());
+        assertTrue(geometry.layout(Kinematics.innerSize(200, DENSITY, 6)));
+
+        assertEquals(60, geometry.get(Geometry.SQUARE), 0);
+        assertEquals(20, geometry.get(Geometry.SQUARE + 1), 0);
+        assertEquals(68, geometry.get(Geometry.BOUNDS), 0);
+        assertEquals(28, geometry.get(Geometry.BOUNDS + 1), 0);
+        assertEquals(252, geometry.get(Geometry.BOUNDS + 2), 0);
+        assertEquals(212, geometry.get(Geometry.BOUNDS + 3), 0);
+
+        // the power's line is in the middle of the innerView
+        float innerLeft = geometry.get(Geometry.INNER_BOUNDS);
+        float innerRight = geometry.get(Geometry.INNER_BOUNDS + 2);
+        assertEquals((innerLeft + innerRight) / 2, geometry.get(Geometry.POWER_LINE), 0.001f);
+        assertEquals(Kinematics.powerLineTop(geometry.get(Geometry.INNER_BOUNDS + 1), DENSITY),
+                geometry.get(Geometry.POWER_LINE + 1), 0.001f);
+        assertEquals(innerLeft, geometry.get(Geometry.SUCCESS), 0);
+        assertEquals(innerRight, geometry.get(Geometry.SUCCESS + 4), 0);
+    }
+
+    @Test
+    public void setFrame_skipsUnchangedGeometry() {
+        Geometry geometry = new Geometry(DENSITY);
+        geometry.setFrame(0, 0, 100, 100, 8, 6);
+        geometry.layout(40);
+        float[] values = geometry.getValues();
+
+        assertFalse(geometry.setFrame(0, 0, 100, 100, 8, 6));
+        assertFalse(geometry.layout(40));
+        assertTrue(geometry.layout(50));
+
+        assertTrue(geometry.setFrame(0, 0, 100, 100, 10, 6));
+        assertTrue(geometry.layout(50));
+        assertEquals(10, geometry.get(Geometry.BOUNDS), 0);
+
+        geometry.invalidate();
+        assertTrue(geometry.setFrame(0, 0, 100, 100, 10, 6));
+        assertTrue(geometry.layout(50));
+        // updated in place
+        assertSame(values, geometry.getValues());
+    }
+}
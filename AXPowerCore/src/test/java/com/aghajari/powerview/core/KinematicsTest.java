@@ -0,0 +1,49 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the motion and geometry helpers.
+ */
+public class KinematicsTest {
+
+    @Test
+    public void innerLoadingRatio_dependsOnTheDuration() {
+        assertEquals(0.1f, Kinematics.innerLoadingRatio(700), 0.0001f);
+        assertEquals(0.08f, Kinematics.innerLoadingRatio(600), 0.0001f);
+        assertEquals(0.16f, Kinematics.innerLoadingRatio(1000), 0.0001f);
+        assertEquals(0.005f, Kinematics.innerLoadingRatio(100), 0.0001f);
+    }
+
+    @Test
+    public void trailLength_doublesEveryStep() {
+        assertEquals(15.0f, Kinematics.trailLength(1, true, 1), 0);
+        assertEquals(30.0f, Kinematics.trailLength(1, true, 2), 0);
+        assertEquals(20.0f, Kinematics.trailLength(1, false, 3), 0);
+        assertEquals(0.0f, Kinematics.trailLength(0, true, 3), 0);
+    }
+
+    @Test
+    public void successLines_areDiagonal() {
+        float[] points = new float[Kinematics.SUCCESS_POINTS];
+        Kinematics.successLines(0, 0, 120, 120, points);
+
+        assertEquals(0, points[0], 0);
+        assertEquals(40, points[2], 0.001f);
+        assertEquals(96, points[3], 0.001f);
+        assertEquals(120, points[4], 0);
+
+        // 45 degrees down to the corner and 45 degrees up to the end
+        assertEquals(points[2] - points[0], points[3] - points[1], 0.001f);
+        assertEquals(points[4] - points[2], points[3] - points[5], 0.001f);
+    }
+
+    @Test
+    public void powerLine_crossesTheInnerTop() {
+        assertTrue(Kinematics.powerLineTop(10, 2) < 10);
+        assertTrue(Kinematics.powerLineBottom(50, 2) > 50);
+        assertEquals(50, Kinematics.innerSize(120, 2, 10), 0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void empty_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++)
+            histogram.record(i);
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getPercentile(50));
+        assertEquals(9, histogram.getPercentile(90));
+        assertEquals(10, histogram.getPercentile(100));
+        assertEquals(5.5, histogram.getMean(), 0.0001);
+    }
+
+    @Test
+    public void largeValues_stayWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++)
+            histogram.record(value);
+
+        assertWithin(50000, histogram.getPercentile(50));
+        assertWithin(99000, histogram.getPercentile(99));
+        assertEquals(100000, histogram.getPercentile(100));
+        assertEquals(100000, histogram.getMax());
+    }
+
+    @Test
+    public void percentile_neverExceedsTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1801);
+        assertEquals(1801, histogram.getPercentile(50));
+
+        histogram.record(Long.MAX_VALUE / 2);
+        assertEquals(Long.MAX_VALUE / 2, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void reset_removesEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(400);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " isn't close to " + expected,
+                actual >= expected && actual <= expected + expected / 8);
+    }
+}
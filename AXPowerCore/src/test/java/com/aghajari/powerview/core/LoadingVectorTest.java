@@ -0,0 +1,177 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * The RenderThread loading loop of AXPowerView is a pair of animated vectors whose keyframes are sampled
+ * from the loading kinematics, this test fails once they are out of date.
+ * Run {@link #main(String[])} from the AXPowerCore directory to generate them again.
+ */
+public class LoadingVectorTest {
+
+    private static final File RES = new File("../AXPowerView/src/main/res/drawable-v25");
+
+    // timing of AXPowerDrawable's defaults, the loop falls back to the UI thread with any other timing
+    private static final long DURATION = 600;
+    private static final long DELAY = 80;
+    private static final long POWER_LINE_DURATION = 140;
+    private static final int KEYFRAMES = 90;
+
+    @Test
+    public void loadingVectors_matchTheKinematics() throws IOException {
+        assumeTrue(RES.isDirectory());
+        assertEquals(ring(), read("axpower_loading.xml"));
+        assertEquals(inner(), read("axpower_loading_inner.xml"));
+    }
+
+    @Test
+    public void loadingVectors_areContinuousBetweenRounds() {
+        final float[] ring = sample(false);
+        final float[] inner = sample(true);
+
+        // a round starts where the last one ended, modulo a whole turn
+        assertEquals(ring[1], ring[ring.length - 2], 0.0001f);
+        assertEquals(0, fraction(ring[2] - ring[ring.length - 1]), 0.0001f);
+        assertEquals(inner[1], inner[inner.length - 2], 0.0001f);
+        assertEquals(0, fraction(inner[2] - inner[inner.length - 1]), 0.0001f);
+    }
+
+    public static void main(String[] args) throws IOException {
+        write("axpower_loading.xml", ring());
+        write("axpower_loading_inner.xml", inner());
+    }
+
+    private static String ring() {
+        return vector("M24,4 A20,20 0 1,1 24,44 A20,20 0 1,1 24,4", 4, sample(false));
+    }
+
+    private static String inner() {
+        return vector("M24,18 A6,6 0 1,1 24,30 A6,6 0 1,1 24,18", 3, sample(true));
+    }
+
+    /**
+     * sample a round of the loop
+     * @return fraction, trimPathEnd and trimPathOffset of each keyframe
+     */
+    private static float[] sample(boolean inner) {
+        final MotionProfile profile = MotionProfile.loading(DURATION, DELAY);
+        final MotionProfile innerProfile = MotionProfile.innerPowerLoading(profile.getDuration(),
+                DELAY, Kinematics.innerLoadingRatio(DURATION));
+        final MotionProfile.Frame frame = new MotionProfile.Frame();
+        final long period = profile.getPeriod();
+
+        final float[] keyframes = new float[(KEYFRAMES + 1) * 3];
+        float offset = 0;
+        for (int i = 0; i <= KEYFRAMES; i++) {
+            final long time = period * i / KEYFRAMES;
+            if (!inner) {
+                profile.evaluate(time, frame);
+            } else if (time < POWER_LINE_DURATION) {
+                // the power's arc rests where the last round has left it
+                innerProfile.evaluate(innerProfile.getDuration(), frame);
+            } else {
+                innerProfile.evaluate(time - POWER_LINE_DURATION, frame);
+            }
+
+            // offsets are unwrapped, so the keyframes never interpolate across a whole turn
+            float start = frame.start / 360;
+            final float length = Math.max(0, Math.min(1, (frame.end - frame.start) / 360));
+            if (i > 0) start += Math.round(offset - start);
+            offset = start;
+
+            keyframes[i * 3] = (float) i / KEYFRAMES;
+            keyframes[i * 3 + 1] = length;
+            keyframes[i * 3 + 2] = start;
+        }
+
+        // trim offsets must stay positive, the vector takes them modulo one
+        float min = 0;
+        for (int i = 2; i < keyframes.length; i += 3)
+            min = Math.min(min, keyframes[i]);
+        final float shift = (float) Math.ceil(-min);
+        for (int i = 2; i < keyframes.length; i += 3)
+            keyframes[i] += shift;
+        return keyframes;
+    }
+
+    private static String vector(String pathData, float strokeWidth, float[] keyframes) {
+        final long period = MotionProfile.loading(DURATION, DELAY).getPeriod();
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n")
+                .append("<!-- generated from the loading kinematics by LoadingVectorTest of AXPowerCore, don't edit -->\n")
+                .append("<animated-vector xmlns:android=\"http://schemas.android.com/apk/res/android\"\n")
+                .append("    xmlns:aapt=\"http://schemas.android.com/aapt\">\n")
+                .append("    <aapt:attr name=\"android:drawable\">\n")
+                .append("        <vector\n")
+                .append("            android:width=\"48dp\"\n")
+                .append("            android:height=\"48dp\"\n")
+                .append("            android:viewportWidth=\"48\"\n")
+                .append("            android:viewportHeight=\"48\">\n")
+                .append("            <path\n")
+                .append("                android:name=\"arc\"\n")
+                .append("                android:pathData=\"").append(pathData).append("\"\n")
+                .append("                android:strokeColor=\"#FFFFFFFF\"\n")
+                .append("                android:strokeWidth=\"").append(format(strokeWidth)).append("\"\n")
+                .append("                android:strokeLineCap=\"round\"\n")
+                .append("                android:strokeLineJoin=\"round\" />\n")
+                .append("        </vector>\n")
+                .append("    </aapt:attr>\n")
+                .append("    <target android:name=\"arc\">\n")
+                .append("        <aapt:attr name=\"android:animation\">\n")
+                .append("            <objectAnimator\n")
+                .append("                android:duration=\"").append(period).append("\"\n")
+                .append("                android:interpolator=\"@android:anim/linear_interpolator\"\n")
+                .append("                android:repeatCount=\"infinite\">\n");
+        appendProperty(xml, "trimPathEnd", keyframes, 1);
+        appendProperty(xml, "trimPathOffset", keyframes, 2);
+        xml.append("            </objectAnimator>\n")
+                .append("        </aapt:attr>\n")
+                .append("    </target>\n")
+                .append("</animated-vector>\n");
+        return xml.toString();
+    }
+
+    private static void appendProperty(StringBuilder xml, String name, float[] keyframes, int index) {
+        xml.append("                <propertyValuesHolder\n")
+                .append("                    android:propertyName=\"").append(name).append("\"\n")
+                .append("                    android:valueType=\"floatType\">\n");
+        for (int i = 0; i < keyframes.length; i += 3) {
+            xml.append("                    <keyframe android:fraction=\"").append(format(keyframes[i]))
+                    .append("\" android:value=\"").append(format(keyframes[i + index])).append("\" />\n");
+        }
+        xml.append("                </propertyValuesHolder>\n");
+    }
+
+    private static String format(float value) {
+        String text = String.format(Locale.US, "%.4f", value);
+        text = text.replaceAll("0+$", "");
+        return text.endsWith(".") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private static float fraction(float value) {
+        return value - Math.round(value);
+    }
+
+    private static String read(String name) throws IOException {
+        return new String(Files.readAllBytes(new File(RES, name).toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void write(String name, String xml) throws IOException {
+        RES.mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(RES, name)), StandardCharsets.UTF_8)) {
+            writer.write(xml);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the arc kinematics.
+ */
+public class MotionProfileTest {
+
+    private static final float DELTA = 0.5f;
+
+    @Test
+    public void show_endsWithFullCircle() {
+        MotionProfile profile = MotionProfile.show(400);
+        MotionProfile.Frame frame = new MotionProfile.Frame();
+
+        profile.evaluate(0, frame);
+        assertEquals(-90.0f, frame.start, DELTA);
+        assertEquals(-90.0f + MotionProfile.SHOW_LENGTH, frame.end, DELTA);
+
+        profile.evaluate(profile.getDuration(), frame);
+        assertEquals(0.0f, frame.start, DELTA);
+        assertEquals(360.0f, frame.end, DELTA);
+        assertEquals(profile.getDuration(), profile.getPeriod());
+    }
+
+    @Test
+    public void loading_roundMovesTheCircleTwice() {
+        MotionProfile profile = MotionProfile.loading(600, 80);
+        MotionProfile.Frame frame = new MotionProfile.Frame();
+
+        assertEquals(1723, profile.getDuration());
+        assertEquals(1723 + 80, profile.getPeriod());
+
+        profile.evaluate(0, frame);
+        assertEquals(0.0f, frame.start, DELTA);
+        assertEquals(360.0f, frame.end, DELTA);
+        assertEquals(0.0f, frame.startV, 0.0001f);
+        assertEquals(0.0f, frame.endV, 0.0001f);
+
+        profile.evaluate(profile.getDuration(), frame);
+        assertEquals(720.0f, frame.start, DELTA);
+        assertEquals(1080.0f, frame.end, DELTA);
+    }
+
+    @Test
+    public void loading_isMonotonic() {
+        MotionProfile profile = MotionProfile.loading(600, 80);
+        MotionProfile.Frame frame = new MotionProfile.Frame();
+
+        float start = -1, end = -1;
+        for (long time = 0; time <= profile.getDuration(); time++) {
+            profile.evaluate(time, frame);
+            assertTrue(frame.start >= start - 0.01f);
+            assertTrue(frame.end >= end - 0.01f);
+            start = frame.start;
+            end = frame.end;
+        }
+    }
+
+    @Test
+    public void evaluate_clampsToDuration() {
+        MotionProfile profile = MotionProfile.reload(600);
+        MotionProfile.Frame last = new MotionProfile.Frame();
+        MotionProfile.Frame after = new MotionProfile.Frame();
+
+        profile.evaluate(profile.getDuration(), last);
+        profile.evaluate(profile.getDuration() * 10, after);
+        assertEquals(last.start, after.start, 0);
+        assertEquals(last.end, after.end, 0);
+    }
+
+    @Test
+    public void profiles_areCached() {
+        assertSame(MotionProfile.loading(600, 80), MotionProfile.loading(600, 80));
+        assertSame(MotionProfile.innerPowerLoading(1723, 80, 0.08f),
+                MotionProfile.innerPowerLoading(1723, 80, 0.08f));
+        assertNotSame(MotionProfile.loading(600, 80), MotionProfile.loading(700, 80));
+    }
+
+    @Test
+    public void innerReload_endsWithThePowerArc() {
+        MotionProfile profile = MotionProfile.innerReload(900);
+        MotionProfile.Frame frame = new MotionProfile.Frame();
+
+        profile.evaluate(0, frame);
+        assertEquals(-90.0f, frame.start, DELTA);
+        assertEquals(-90.0f, frame.end, DELTA);
+
+        profile.evaluate(profile.getDuration(), frame);
+        assertEquals(45.0f, frame.start, DELTA);
+        assertEquals(315.0f, frame.end, DELTA);
+    }
+}
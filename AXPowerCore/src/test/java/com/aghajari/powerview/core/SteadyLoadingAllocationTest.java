@@ -0,0 +1,103 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * The frames of a steady-state LOADING must not allocate. The real {@link FrameModel} and its timeline are
+ * measured by the JVM's per-thread allocation counter after a warm-up, so a regression of the frame computation
+ * fails here instead of as GC jank. The canvas drawing and the listeners of the drawable aren't covered.
+ */
+public class SteadyLoadingAllocationTest {
+
+    private static final long DURATION = 600;
+    private static final long DELAY = 80;
+    private static final long FRAME_NANOS = 16666667;
+    // long enough for the JIT to compile the whole frame, a compilation may allocate on this thread
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 50;
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        Object bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void steadyLoading_allocatesNothing() {
+        final LoadingHost target = new LoadingHost();
+        final Timeline timeline = target.model.getTimeline();
+        timeline.start();
+        timeline.flush();
+
+        long frameTime = 0;
+        final int frames = (int) (MotionProfile.loading(DURATION, DELAY).getPeriod() * 1000000 / FRAME_NANOS) + 1;
+        for (int i = 0; i < WARMUP_ROUNDS * frames; i++) {
+            frameTime += FRAME_NANOS;
+            timeline.tick(frameTime, 0);
+            timeline.flush();
+        }
+        final int warmFrames = target.frames;
+
+        final long overhead = allocatedBytes() - allocatedBytes();
+        final long before = allocatedBytes();
+        for (int i = 0; i < ROUNDS * frames; i++) {
+            frameTime += FRAME_NANOS;
+            timeline.tick(frameTime, 0);
+            timeline.flush();
+        }
+        final long allocated = allocatedBytes() - before - Math.max(0, -overhead);
+
+        assertTrue(timeline.isRunning());
+        assertTrue(target.frames > warmFrames);
+        assertTrue(target.rounds > WARMUP_ROUNDS + ROUNDS / 2);
+        assertEquals(0, allocated);
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** runs the loading of the drawable from the power, with the one-shot hiding of the power's line */
+    private static final class LoadingHost implements FrameModel.Host {
+        final FrameModel model = new FrameModel(this);
+
+        int frames, rounds;
+        float trail;
+
+        LoadingHost() {
+            model.setIconLengths(30, 10, 20);
+            model.settle(FrameModel.ICON_POWER);
+            model.hidePowerLine();
+            model.loading(DURATION, DELAY, Kinematics.innerLoadingRatio(DURATION), true);
+        }
+
+        @Override
+        public void onRoundStart() {
+            rounds++;
+        }
+
+        @Override
+        public void onMotionEnd(int motion) {
+        }
+
+        @Override
+        public void onFrame(boolean loopOnly) {
+            // the trail lengths are the only math of the drawable on top of the frame
+            final FrameModel.Frame frame = model.getFrame();
+            trail = Kinematics.trailLength(frame.startV, !frame.focusOnEnd, 2)
+                    + Kinematics.trailLength(frame.endV, frame.focusOnEnd, 2);
+            frames++;
+        }
+    }
+}
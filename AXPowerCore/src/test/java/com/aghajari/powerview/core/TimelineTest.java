@@ -0,0 +1,193 @@
+package com.aghajari.powerview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JVM tests of the timeline driven by a virtual clock.
+ */
+public class TimelineTest {
+
+    private static final long FRAME_NANOS = 16666667;
+
+    @Test
+    public void seekTo_doesNotDependOnThePreviousFrames() {
+        Recorder stepped = new Recorder();
+        stepped.timeline.start();
+        for (long t = FRAME_NANOS; t < 400 * 1000000L; t += FRAME_NANOS)
+            stepped.timeline.tick(t, -1);
+        stepped.timeline.seekTo(250);
+
+        Recorder seeked = new Recorder();
+        seeked.timeline.start();
+        seeked.timeline.seekTo(250);
+
+        assertEquals(250, stepped.timeline.getTime());
+        assertArrayEquals(seeked.times, stepped.times);
+        assertArrayEquals(seeked.ends, stepped.ends);
+        assertEquals(100, seeked.times[0]);
+        assertEquals(150, seeked.times[1]);
+        assertEquals(0, seeked.times[2]);
+    }
+
+    @Test
+    public void tick_continuesFromTheSeekedTime() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.start();
+        recorder.timeline.seekTo(120);
+
+        recorder.timeline.tick(5000 * 1000000L, -1);
+        assertEquals(120, recorder.timeline.getTime());
+        recorder.timeline.tick(5030 * 1000000L, -1);
+        assertEquals(150, recorder.timeline.getTime());
+    }
+
+    @Test
+    public void rebase_everyTickAdvancesByItsFrame() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.start();
+        recorder.timeline.rebase(0);
+        for (int i = 1; i <= 6; i++) {
+            recorder.timeline.tick(i * FRAME_NANOS, -1);
+            assertEquals(i * FRAME_NANOS / 1000000, recorder.timeline.getTime());
+        }
+
+        recorder.timeline.seekTo(250);
+        recorder.timeline.rebase(6 * FRAME_NANOS);
+        recorder.timeline.tick(7 * FRAME_NANOS, -1);
+        assertEquals(266, recorder.timeline.getTime());
+    }
+
+    @Test
+    public void seekTo_repeatingTimelineStaysInItsRound() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.setRepeatPeriod(500);
+        recorder.timeline.start();
+        recorder.timeline.seekTo(1250);
+
+        assertEquals(250, recorder.timeline.getTime());
+        assertTrue(recorder.timeline.isRunning());
+    }
+
+    @Test
+    public void addOnce_runsInTheFirstRoundOnly() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.addOnce(3, 0, 50);
+        recorder.timeline.setRepeatPeriod(500);
+        recorder.timeline.start();
+        for (long t = FRAME_NANOS; t < 1600 * 1000000L; t += FRAME_NANOS)
+            recorder.timeline.tick(t, -1);
+
+        assertEquals(4, recorder.starts[0]);
+        assertEquals(1, recorder.starts[3]);
+        assertEquals(1, recorder.ends[3]);
+    }
+
+    @Test
+    public void tick_newLoopSeeksIntoTheRoundOfTheEpoch() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.setRepeatPeriod(500);
+        recorder.timeline.start();
+
+        recorder.timeline.tick(1200 * 1000000L, 0);
+        assertEquals(200, recorder.timeline.getTime());
+        // the next round starts on the grid, without holding the end of the first one
+        recorder.timeline.tick(1500 * 1000000L, 0);
+        assertEquals(0, recorder.timeline.getTime());
+        recorder.timeline.tick(1750 * 1000000L, 0);
+        assertEquals(250, recorder.timeline.getTime());
+    }
+
+    @Test
+    public void tick_seekedLoopKeepsItsTime() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.setRepeatPeriod(500);
+        recorder.timeline.start();
+        recorder.timeline.seekTo(100);
+
+        recorder.timeline.tick(1200 * 1000000L, 0);
+        assertEquals(100, recorder.timeline.getTime());
+        recorder.timeline.tick(1650 * 1000000L, 0);
+        assertEquals(50, recorder.timeline.getTime());
+    }
+
+    @Test
+    public void seekTo_pastTheEndFinishesTheTimeline() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.start();
+        recorder.timeline.seekTo(1000);
+
+        assertFalse(recorder.timeline.isRunning());
+        assertArrayEquals(new int[]{1, 1, 1, 0}, recorder.ends);
+    }
+
+    @Test
+    public void cancel_dropsTheDelayedSegments() {
+        Recorder recorder = new Recorder();
+        recorder.timeline.start();
+        recorder.timeline.tick(FRAME_NANOS, -1);
+        recorder.timeline.cancel();
+
+        for (long t = 2 * FRAME_NANOS; t < 1000 * 1000000L; t += FRAME_NANOS)
+            recorder.timeline.tick(t, -1);
+        assertEquals(0, recorder.starts[1]);
+        assertEquals(0, recorder.starts[2]);
+        assertEquals(0, recorder.timeline.getActiveSegmentCount());
+    }
+
+    @Test
+    public void supersededFromACallback_stopsTheStaleFrame() {
+        final Recorder recorder = new Recorder();
+        recorder.supersedeOnEnd = 0;
+        recorder.timeline.start();
+
+        // the first segment ends and a new transition replaces the timeline in the same frame
+        recorder.timeline.tick(0, -1);
+        recorder.timeline.tick(500 * 1000000L, -1);
+        assertEquals(0, recorder.starts[1]);
+        assertEquals(0, recorder.starts[2]);
+        assertEquals(1, recorder.starts[3]);
+        assertTrue(recorder.timeline.isRunning());
+    }
+
+    private static final class Recorder implements Timeline.Target {
+        final Timeline timeline = new Timeline(this);
+        final long[] times = new long[4];
+        final int[] ends = new int[4];
+        final int[] starts = new int[4];
+        int supersedeOnEnd = -1;
+
+        Recorder() {
+            timeline.add(0, 0, 100);
+            timeline.add(1, 100, 300);
+            timeline.add(2, 250, 200);
+        }
+
+        @Override
+        public void onSegmentStart(int segment) {
+            starts[segment]++;
+            times[segment] = 0;
+            ends[segment] = 0;
+        }
+
+        @Override
+        public void onSegmentUpdate(int segment, long time, long duration) {
+            times[segment] = time;
+        }
+
+        @Override
+        public void onSegmentEnd(int segment) {
+            ends[segment]++;
+            if (segment == supersedeOnEnd) {
+                timeline.cancel();
+                timeline.add(3, 0, 100);
+                timeline.start();
+            }
+        }
+
+        @Override
+        public void onFrame() {
+        }
+    }
+}
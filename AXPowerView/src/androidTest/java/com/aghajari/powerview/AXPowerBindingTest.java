@@ -0,0 +1,142 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SdkSuppress;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Bindings drop stale events, are paced by the frames and are cancelled once the view is detached.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AXPowerBindingTest {
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void sourceBinding_isCancelledOnDetach() {
+        final AXPowerView view = create();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AXPowerBinding[] binding = new AXPowerBinding[1];
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                binding[0] = view.bind(new AXPowerBinding.Source() {
+                    @Override
+                    public Runnable subscribe(@NonNull AXPowerBinding binding) {
+                        binding.emit(AXPowerEvent.state(AXPowerView.State.LOADING, false));
+                        return new Runnable() {
+                            @Override
+                            public void run() {
+                                stopped.set(true);
+                            }
+                        };
+                    }
+                });
+                assertEquals(AXPowerView.State.LOADING, view.getCurrentState());
+                view.onDetachedFromWindow();
+                binding[0].emit(AXPowerEvent.state(AXPowerView.State.SUCCEED, false));
+            }
+        });
+
+        assertTrue(stopped.get());
+        assertFalse(binding[0].isActive());
+        assertEquals(AXPowerView.State.LOADING, view.getCurrentState());
+    }
+
+    @Test
+    @SdkSuppress(minSdkVersion = 30)
+    public void flowBinding_requestsInStepWithFrames() {
+        final AXPowerView view = create();
+        final EagerPublisher publisher = new EagerPublisher();
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view.bindPublisher(publisher);
+            }
+        });
+        assertEquals(FlowBinding.BATCH, publisher.requested.get());
+
+        // a worker publishes as fast as the demand allows, the frames renew the demand
+        Thread worker = new Thread(publisher);
+        worker.start();
+        SystemClock.sleep(500);
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view.onDetachedFromWindow();
+            }
+        });
+
+        assertTrue(publisher.cancelled.get());
+        final long delivered = publisher.delivered.get();
+        // half a second has at most 60 frames of 120Hz, each renews a single batch
+        assertTrue(delivered >= FlowBinding.BATCH);
+        assertTrue(delivered <= FlowBinding.BATCH * 61);
+        SystemClock.sleep(100);
+        assertEquals(delivered, publisher.delivered.get());
+    }
+
+    private AXPowerView create() {
+        final Context context = instrumentation.getTargetContext();
+        final AXPowerView[] view = new AXPowerView[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view[0] = new AXPowerView(context);
+                view[0].setState(AXPowerView.State.POWER, false);
+            }
+        });
+        return view[0];
+    }
+
+    /** publishes a progress for every requested event until it's cancelled */
+    private static final class EagerPublisher implements Flow.Publisher<AXPowerEvent>, Flow.Subscription, Runnable {
+        final AtomicLong requested = new AtomicLong();
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile Flow.Subscriber<? super AXPowerEvent> subscriber;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super AXPowerEvent> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        @Override
+        public void run() {
+            while (!cancelled.get()) {
+                if (delivered.get() < requested.get()) {
+                    subscriber.onNext(AXPowerEvent.progress((delivered.incrementAndGet() % 100) / 100f));
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+}
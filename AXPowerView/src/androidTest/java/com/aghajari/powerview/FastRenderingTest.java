@@ -0,0 +1,142 @@
+package com.aghajari.powerview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the fast rendering with the default paints (CornerPathEffect),
+ * the fast mode must draw the same arc and trail and cost less.
+ * The draw cost of both modes is reported in logcat under the "FastRenderingTest" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FastRenderingTest {
+
+    private static final String TAG = "FastRenderingTest";
+    private static final int SIZE = 300;
+    private static final int WARMUP_FRAMES = 200;
+    private static final int FRAMES = 2000;
+    private static final int RUNS = 3;
+
+    @Test
+    public void fastRendering_drawsTheSamePixels() {
+        Bitmap normal = render(create(false), 45, 300, 1);
+        Bitmap fast = render(create(true), 45, 300, 1);
+
+        // arcs may be rasterized differently without a path effect, only the anti-aliased edges may differ
+        int different = 0;
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                if (Math.abs(Color.alpha(normal.getPixel(x, y)) - Color.alpha(fast.getPixel(x, y))) > 64)
+                    different++;
+            }
+        }
+        assertTrue(different < SIZE * SIZE / 1000);
+    }
+
+    @Test
+    public void fastRendering_keepsTheArcAndTheTrail() {
+        AXPowerView view = create(true);
+        Bitmap fast = render(view, 0, 180, 1);
+        AXPowerDrawable drawable = view.drawable;
+
+        // the arc covers the right half, the trail follows its end on the left half
+        assertEquals(255, alphaAt(fast, drawable, 60));
+        assertEquals(255, alphaAt(fast, drawable, 120));
+        assertEquals(0, alphaAt(fast, drawable, 300));
+
+        float trail = drawable.getArcShadowLength(false, 2);
+        assertTrue(trail > 10);
+        int trailAlpha = alphaAt(fast, drawable, 180 + trail / 2);
+        assertTrue(trailAlpha > 0 && trailAlpha < 255);
+        assertEquals(0, alphaAt(fast, drawable, 180 + trail + 10));
+    }
+
+    @Test
+    public void fastRendering_drawCost() {
+        AXPowerView normal = create(false);
+        AXPowerView fast = create(true);
+
+        long normalNanos = Long.MAX_VALUE, fastNanos = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            normalNanos = Math.min(normalNanos, measure(normal));
+            fastNanos = Math.min(fastNanos, measure(fast));
+        }
+        Log.i(TAG, "CornerPathEffect: " + (normalNanos / FRAMES) + " ns/frame, fast rendering: "
+                + (fastNanos / FRAMES) + " ns/frame");
+        // the path effect is rasterized by the software canvas on every frame, skipping it must be cheaper
+        assertTrue(fastNanos < normalNanos);
+    }
+
+    private AXPowerView create(final boolean fastRendering) {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        final AXPowerView[] view = new AXPowerView[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view[0] = new AXPowerView(context);
+                view[0].setFastRenderingEnabled(fastRendering);
+                view[0].measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+                view[0].layout(0, 0, SIZE, SIZE);
+                view[0].setState(AXPowerView.State.POWER, false);
+            }
+        });
+        return view[0];
+    }
+
+    private static Bitmap render(AXPowerView view, float start, float end, float endV) {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        view.drawable.start = start;
+        view.drawable.end = end;
+        view.drawable.startV = 0;
+        view.drawable.endV = endV;
+        view.drawable.focusOnEnd = true;
+        view.drawable.drawState(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    /** @return alpha of the pixel on the main circle at the given angle, zero degree is the top */
+    private static int alphaAt(Bitmap bitmap, AXPowerDrawable drawable, float degrees) {
+        double radians = Math.toRadians(degrees - 90);
+        float radius = drawable.bounds.width() / 2;
+        int x = Math.round(drawable.bounds.centerX() + radius * (float) Math.cos(radians));
+        int y = Math.round(drawable.bounds.centerY() + radius * (float) Math.sin(radians));
+        return Color.alpha(bitmap.getPixel(x, y));
+    }
+
+    /** @return total nanoseconds of drawing a full loading round */
+    private static long measure(AXPowerView view) {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            draw(view, canvas, bitmap, i, WARMUP_FRAMES);
+        }
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            draw(view, canvas, bitmap, i, FRAMES);
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void draw(AXPowerView view, Canvas canvas, Bitmap bitmap, int frame, int frames) {
+        float fraction = (float) frame / frames;
+        view.drawable.start = 720 * fraction;
+        view.drawable.end = view.drawable.start + 30 + 300 * fraction;
+        bitmap.eraseColor(Color.TRANSPARENT);
+        view.drawable.drawState(canvas);
+    }
+}
@@ -0,0 +1,72 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * The drawable invalidates itself once per frame, even if the host skips its draws.
+ */
+@RunWith(AndroidJUnit4.class)
+public class InvalidationTest {
+
+    private static final long FRAME = 16_000_000L;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void skippedDraw_isInvalidatedOnTheNextFrame() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = new AXPowerDrawable(instrumentation.getTargetContext());
+                drawable.setVirtualClockEnabled(true);
+                drawable.setBounds(0, 0, 300, 300);
+                drawable.setState(AXPowerView.State.HIDDEN, false);
+
+                // the host ignores every invalidation and never draws
+                CountingCallback callback = new CountingCallback();
+                drawable.setCallback(callback);
+                drawable.setState(AXPowerView.State.POWER);
+                final int invalidations = callback.invalidations;
+                assertTrue(drawable.isRunning());
+
+                for (int i = 0; i < 5; i++)
+                    drawable.stepFrame(FRAME);
+                assertTrue(drawable.isRunning());
+                assertEquals(invalidations + 5, callback.invalidations);
+
+                // a second invalidation of the same frame is still suppressed
+                final long suppressed = drawable.getSuppressedInvalidationCount();
+                drawable.setColor(drawable.getColor());
+                assertEquals(invalidations + 5, callback.invalidations);
+                assertEquals(suppressed + 1, drawable.getSuppressedInvalidationCount());
+            }
+        });
+    }
+
+    private static final class CountingCallback implements Drawable.Callback {
+        int invalidations = 0;
+
+        @Override
+        public void invalidateDrawable(@NonNull Drawable who) {
+            invalidations++;
+        }
+
+        @Override
+        public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
+        }
+
+        @Override
+        public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
+        }
+    }
+}
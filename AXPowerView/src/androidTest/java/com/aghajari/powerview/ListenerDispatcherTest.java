@@ -0,0 +1,98 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every listener receives the events in order, batched events are delivered after the dispatching code returns.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListenerDispatcherTest {
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void dispatch_reachesAllListeners() {
+        final ListenerDispatcher dispatcher = new ListenerDispatcher();
+        final List<String> first = new ArrayList<>();
+        final List<String> second = new ArrayList<>();
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final RecordingListener removing = new RecordingListener(first) {
+                    @Override
+                    public void onAnimationEnded(AXPowerView.State currentState, AXPowerView.State nextState) {
+                        super.onAnimationEnded(currentState, nextState);
+                        dispatcher.remove(this);
+                    }
+                };
+                dispatcher.add(removing);
+                dispatcher.add(new RecordingListener(second));
+
+                dispatcher.onStateChanged(AXPowerView.State.POWER, AXPowerView.State.LOADING, true);
+                dispatcher.onAnimationEnded(AXPowerView.State.LOADING, AXPowerView.State.SUCCEED);
+                dispatcher.onAnimationEnded(AXPowerView.State.SUCCEED, AXPowerView.State.SUCCEED);
+            }
+        });
+
+        assertEquals(2, first.size());
+        assertEquals(3, second.size());
+        assertEquals("changed POWER LOADING true", second.get(0));
+        assertEquals("ended LOADING SUCCEED", second.get(1));
+    }
+
+    @Test
+    public void batched_deliversAfterTheFrame() {
+        final ListenerDispatcher dispatcher = new ListenerDispatcher();
+        final List<String> events = new ArrayList<>();
+        final int[] deliveredDuringDispatch = new int[1];
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.add(new RecordingListener(events));
+                dispatcher.setBatched(true);
+                dispatcher.onStateChanged(AXPowerView.State.POWER, AXPowerView.State.LOADING, false);
+                dispatcher.onAnimationEnded(AXPowerView.State.LOADING, AXPowerView.State.LOADING);
+                deliveredDuringDispatch[0] = events.size();
+            }
+        });
+        SystemClock.sleep(100);
+        instrumentation.waitForIdleSync();
+
+        assertEquals(0, deliveredDuringDispatch[0]);
+        assertEquals(2, events.size());
+        assertEquals("changed POWER LOADING false", events.get(0));
+        assertEquals("ended LOADING LOADING", events.get(1));
+    }
+
+    private static class RecordingListener implements AXPowerView.AnimatorListener {
+        private final List<String> events;
+
+        RecordingListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onAnimationEnded(AXPowerView.State currentState, AXPowerView.State nextState) {
+            events.add("ended " + currentState + " " + nextState);
+        }
+
+        @Override
+        public void onStateChanged(AXPowerView.State from, AXPowerView.State to, boolean animationLoaded) {
+            events.add("changed " + from + " " + to + " " + animationLoaded);
+        }
+    }
+}
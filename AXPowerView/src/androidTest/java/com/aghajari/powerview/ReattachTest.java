@@ -0,0 +1,80 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * A transition which has been stopped by detaching the host resumes once the host is attached again.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReattachTest {
+
+    private static final long FRAME = 16_000_000L;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void reloading_startsOverAndEndsOnThePower() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = create(AXPowerView.State.SUCCEED);
+                drawable.setState(AXPowerView.State.RELOADING);
+                step(drawable, 100);
+
+                drawable.onDetached();
+                drawable.onAttached();
+                assertEquals(AXPowerView.State.RELOADING, drawable.getCurrentState());
+                assertEquals(AXPowerView.State.RELOADING, drawable.getNextState());
+                assertTrue(drawable.isRunning());
+
+                step(drawable, 3000);
+                assertEquals(AXPowerView.State.POWER, drawable.getCurrentState());
+                assertFalse(drawable.isRunning());
+            }
+        });
+    }
+
+    @Test
+    public void show_jumpsToItsEnd() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = create(AXPowerView.State.HIDDEN);
+                drawable.setState(AXPowerView.State.SUCCEED);
+                step(drawable, 100);
+                assertTrue(drawable.isRunning());
+
+                drawable.onDetached();
+                drawable.onAttached();
+                assertEquals(AXPowerView.State.SUCCEED, drawable.getCurrentState());
+                assertFalse(drawable.isRunning());
+                assertEquals(0, drawable.start, 0);
+                assertEquals(360, drawable.end, 0);
+                assertEquals(drawable.icons.getSuccessLength(), drawable.successLength, 0.001f);
+            }
+        });
+    }
+
+    private AXPowerDrawable create(AXPowerView.State state) {
+        Context context = instrumentation.getTargetContext();
+        AXPowerDrawable drawable = new AXPowerDrawable(context);
+        drawable.setVirtualClockEnabled(true);
+        drawable.setBounds(0, 0, 300, 300);
+        drawable.setState(state, false);
+        return drawable;
+    }
+
+    private static void step(AXPowerDrawable drawable, long ms) {
+        for (long t = 0; t < ms * 1_000_000L; t += FRAME)
+            drawable.stepFrame(FRAME);
+    }
+}
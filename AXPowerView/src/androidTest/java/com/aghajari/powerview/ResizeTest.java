@@ -0,0 +1,71 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Resizing the drawable rescales its geometry in place, a running animation isn't restarted.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ResizeTest {
+
+    private static final long FRAME = 16_000_000L;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void resizeWhileLoading_continuesTheTimeline() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable resized = create(AXPowerView.State.POWER);
+                AXPowerDrawable control = create(AXPowerView.State.POWER);
+                resized.setState(AXPowerView.State.LOADING);
+                control.setState(AXPowerView.State.LOADING);
+
+                for (int i = 0; i < 60; i++) {
+                    resized.setBounds(0, 0, 300 - i * 2, 300 - i * 2);
+                    resized.stepFrame(FRAME);
+                    control.stepFrame(FRAME);
+
+                    assertTrue(resized.isRunning());
+                    assertEquals(control.start, resized.start, 0.001f);
+                    assertEquals(control.end, resized.end, 0.001f);
+                }
+                assertEquals(AXPowerView.State.LOADING, resized.getCurrentState());
+            }
+        });
+    }
+
+    @Test
+    public void resizeOfIdleState_rescalesTheIcons() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = create(AXPowerView.State.SUCCEED);
+                drawable.setBounds(0, 0, 150, 150);
+
+                assertFalse(drawable.isRunning());
+                assertEquals(drawable.icons.getSuccessLength(), drawable.successLength, 0.001f);
+                assertEquals(150 - drawable.getThickness(), drawable.bounds.right, 0.001f);
+            }
+        });
+    }
+
+    private AXPowerDrawable create(AXPowerView.State state) {
+        Context context = instrumentation.getTargetContext();
+        AXPowerDrawable drawable = new AXPowerDrawable(context);
+        drawable.setVirtualClockEnabled(true);
+        drawable.setBounds(0, 0, 300, 300);
+        drawable.setState(state, false);
+        return drawable;
+    }
+}
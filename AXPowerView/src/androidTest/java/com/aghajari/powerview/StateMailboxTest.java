@@ -0,0 +1,78 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * A burst of states from a worker thread is coalesced into the latest one and applied on the UI thread.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StateMailboxTest {
+
+    private static final int BURST = 10000;
+
+    @Test
+    public void setStateOffTheUiThread_appliesTheLatestState() throws InterruptedException {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Context context = instrumentation.getTargetContext();
+        final AXPowerDrawable[] drawable = new AXPowerDrawable[1];
+        final AtomicInteger applied = new AtomicInteger();
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                drawable[0] = new AXPowerDrawable(context);
+                drawable[0].setState(AXPowerView.State.POWER, false);
+                drawable[0].setAnimatorListener(new AXPowerView.AnimatorListener() {
+                    @Override
+                    public void onAnimationEnded(AXPowerView.State currentState, AXPowerView.State nextState) {
+                    }
+
+                    @Override
+                    public void onStateChanged(AXPowerView.State from, AXPowerView.State to, boolean animationLoaded) {
+                        applied.incrementAndGet();
+                    }
+                });
+            }
+        });
+
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < BURST; i++) {
+                    drawable[0].setState(i % 2 == 0 ? AXPowerView.State.SUCCEED : AXPowerView.State.LOADING, true);
+                }
+                drawable[0].setState(AXPowerView.State.SUCCEED, false);
+            }
+        });
+        worker.start();
+        worker.join();
+
+        final AXPowerView.State[] state = new AXPowerView.State[1];
+        final long deadline = SystemClock.uptimeMillis() + 2000;
+        do {
+            SystemClock.sleep(16);
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    state[0] = drawable[0].getCurrentState();
+                }
+            });
+        } while (state[0] != AXPowerView.State.SUCCEED && SystemClock.uptimeMillis() < deadline);
+
+        assertEquals(AXPowerView.State.SUCCEED, state[0]);
+        // intermediate states have been coalesced, only a few frames have run during the burst
+        assertTrue(applied.get() < BURST / 10);
+    }
+}
@@ -0,0 +1,82 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Animated states are queued behind the running transition, a redundant state doesn't block the next ones.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StateQueueTest {
+
+    private static final long FRAME = 16_000_000L;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void redundantLoading_doesNotBlockTheNextState() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = create();
+                drawable.setState(AXPowerView.State.LOADING);
+                step(drawable, 100);
+
+                drawable.setState(AXPowerView.State.LOADING);
+                // past the end of the first round
+                step(drawable, 1000);
+                assertEquals(AXPowerView.State.LOADING, drawable.getCurrentState());
+                assertEquals(AXPowerView.State.LOADING, drawable.getNextState());
+
+                drawable.setState(AXPowerView.State.SUCCEED);
+                assertEquals(AXPowerView.State.SUCCEED, drawable.getNextState());
+                step(drawable, 3000);
+                assertEquals(AXPowerView.State.SUCCEED, drawable.getCurrentState());
+                assertFalse(drawable.isRunning());
+            }
+        });
+    }
+
+    @Test
+    public void reloadingWithoutAnimation_replacesTheCheckMark() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                AXPowerDrawable drawable = create();
+                drawable.setState(AXPowerView.State.SUCCEED, false);
+                drawable.setState(AXPowerView.State.RELOADING, false);
+
+                // the reloading runs from the check mark, it doesn't jump to the power first
+                assertEquals(AXPowerView.State.RELOADING, drawable.getCurrentState());
+                assertTrue(drawable.isRunning());
+                assertTrue(drawable.successLength > 0);
+
+                step(drawable, 3000);
+                assertEquals(AXPowerView.State.POWER, drawable.getCurrentState());
+                assertFalse(drawable.isRunning());
+            }
+        });
+    }
+
+    private AXPowerDrawable create() {
+        Context context = instrumentation.getTargetContext();
+        AXPowerDrawable drawable = new AXPowerDrawable(context);
+        drawable.setVirtualClockEnabled(true);
+        drawable.setBounds(0, 0, 300, 300);
+        drawable.setState(AXPowerView.State.POWER, false);
+        return drawable;
+    }
+
+    private static void step(AXPowerDrawable drawable, long ms) {
+        for (long t = 0; t < ms * 1_000_000L; t += FRAME)
+            drawable.stepFrame(FRAME);
+    }
+}
@@ -0,0 +1,65 @@
+package com.aghajari.powerview;
+
+import android.app.Instrumentation;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.aghajari.powerview.core.Timeline;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every step of the virtual clock moves the timeline by its frame, the first one after a start or a seek as well.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VirtualClockTest {
+
+    private static final long FRAME = 16_666_667L;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+
+    @Test
+    public void stepFrame_landsOnTheFrames() {
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Timeline timeline = new Timeline(new IdleTarget());
+                timeline.add(0, 0, 1000);
+                AnimationEngine engine = new AnimationEngine(timeline);
+                engine.setVirtualClock(true);
+                engine.start();
+
+                for (int i = 1; i <= 10; i++) {
+                    engine.stepFrame(FRAME);
+                    assertEquals(i * FRAME / 1_000_000L, timeline.getTime());
+                }
+
+                engine.seekTo(250);
+                engine.stepFrame(FRAME);
+                assertEquals(250 + FRAME / 1_000_000L, timeline.getTime());
+            }
+        });
+    }
+
+    private static final class IdleTarget implements Timeline.Target {
+        @Override
+        public void onSegmentStart(int segment) {
+        }
+
+        @Override
+        public void onSegmentUpdate(int segment, long time, long duration) {
+        }
+
+        @Override
+        public void onSegmentEnd(int segment) {
+        }
+
+        @Override
+        public void onFrame() {
+        }
+    }
+}
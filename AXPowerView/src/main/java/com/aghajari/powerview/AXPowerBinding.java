@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Subscription of an {@link AXPowerView} to a stream of {@link AXPowerEvent}s.
+ * Events may be emitted from any thread and at any rate, the view coalesces them and applies only the latest
+ * state and progress once per frame, so stale events are dropped instead of being queued.
+ * A binding is cancelled once its view is detached from the window.
+ *
+ * @author AmirHosseinAghajari
+ * @see AXPowerView#bind(Source)
+ */
+public class AXPowerBinding {
+
+    public interface Source {
+        /**
+         * start emitting the events to the binding
+         * @return a runnable which stops the source once the binding is cancelled, or null
+         */
+        @Nullable
+        Runnable subscribe(@NonNull AXPowerBinding binding);
+    }
+
+    private final AXPowerDrawable drawable;
+    private final AtomicBoolean active = new AtomicBoolean(true);
+    private final AtomicReference<Runnable> disposer = new AtomicReference<>();
+
+    AXPowerBinding(@NonNull AXPowerDrawable drawable) {
+        this.drawable = drawable;
+    }
+
+    /** subscribe the binding to the source */
+    void subscribe(@NonNull Source source) {
+        disposer.set(source.subscribe(this));
+        // the binding may have been cancelled while subscribing
+        if (!isActive()) dispose();
+    }
+
+    /**
+     * apply the event to the view, it's ignored once the binding isn't active.
+     * It may be called from any thread.
+     */
+    public void emit(@NonNull AXPowerEvent event) {
+        if (active.get()) event.apply(drawable);
+    }
+
+    /**
+     * cancel the binding, the source is stopped and the view doesn't receive its events anymore
+     */
+    public void cancel() {
+        if (active.compareAndSet(true, false))
+            onCancel();
+    }
+
+    /**
+     * @return false if the binding has been cancelled or its source has been completed
+     */
+    public boolean isActive() {
+        return active.get();
+    }
+
+    /** the source has been completed, there is nothing to stop */
+    void complete() {
+        active.set(false);
+    }
+
+    /** stop the source */
+    void onCancel() {
+        dispose();
+    }
+
+    private void dispose() {
+        final Runnable runnable = disposer.getAndSet(null);
+        if (runnable != null) runnable.run();
+    }
+}
@@ -0,0 +1,1249 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.CornerPathEffect;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PathEffect;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+import com.aghajari.powerview.AXPowerView.AnimatorListener;
+import com.aghajari.powerview.AXPowerView.State;
+import com.aghajari.powerview.core.FrameModel;
+import com.aghajari.powerview.core.Geometry;
+import com.aghajari.powerview.core.Kinematics;
+
+/**
+ * The power indicator of {@link AXPowerView} as an animatable drawable,
+ * it can be used in ImageViews, compound drawables or toolbar icons.
+ * AXPowerView is a host of this drawable, so both have the same states, animations and visuals.
+ *
+ * @author AmirHosseinAghajari
+ * @version 1.00
+ * @see <a href="https://github.com/Aghajari/AXPowerView">https://github.com/Aghajari/AXPowerView</a>
+ */
+public class AXPowerDrawable extends Drawable implements Animatable {
+
+    // DRAWABLE SIZE
+    protected final float density;
+    private final Resources resources;
+    protected int size = 0;
+    protected RectF bounds, innerBounds;
+    private final Geometry geometry;
+
+    // CIRCLE DATA
+    // copies of the frame of the model, see syncFrame()
+    protected float start = 0.0f, end = 0.0f;
+    protected float startV, endV;
+    protected boolean focusOnEnd = false;
+
+    // INNER VIEW
+    boolean innerView = true;
+    protected float innerStart = 0.0f, innerEnd = 0.0f;
+    // revealed part of the power's line (distances from its top) and of the check mark
+    protected float powerLineFrom = 0.0f, powerLineTo = 0.0f;
+    protected float successLength = 0.0f;
+    final IconPaths icons = new IconPaths();
+
+    // ANIMATIONS DURATION
+    long indeterminateDuration = 600;
+    long succeedDuration = 400;
+    long showDuration = 400;
+    long delay = 80;
+
+    // UI
+    final Paint paint, innerPaint, trailPaint;
+    final Path trailPath = new Path();
+    final PathEffect cornerPathEffect = new CornerPathEffect(100);
+    boolean fastRendering = false;
+    boolean renderThreadLoading = false;
+    float thickness, innerThickness;
+    int color = Color.rgb(85, 164, 241), innerColor = Color.BLACK;
+    int alpha = 255;
+
+    // STATES
+    boolean isRunning = false;
+
+    State state = State.HIDDEN;
+    State nextState = null;
+
+    // LISTENERS
+    private final ListenerDispatcher listeners = new ListenerDispatcher();
+    private AnimatorListener listener = null;
+
+    private final StateMailbox mailbox = new StateMailbox(new StateMailbox.Receiver() {
+        @Override
+        public void onStateReceived(@NonNull State state, boolean animation) {
+            applyState(state, animation);
+        }
+    });
+
+    // DETERMINATE PROGRESS
+    private final ProgressSampler progressSampler = new ProgressSampler(new ProgressSampler.Receiver() {
+        @Override
+        public void onProgressFrame(float progress, float velocity) {
+            AXPowerDrawable.this.onProgressFrame(progress, velocity);
+        }
+
+        @Override
+        public void onProgressCleared() {
+            AXPowerDrawable.this.onProgressCleared();
+        }
+    });
+
+    // TRANSITIONS
+    private final AXPowerTransition[] transitions = new AXPowerTransition[State.values().length * State.values().length];
+
+    // INVALIDATION
+    private final StaticStateCache stateCache = new StaticStateCache(new StaticStateCache.Renderer() {
+        @Override
+        public void render(@NonNull Canvas canvas) {
+            drawState(canvas);
+        }
+    });
+    private boolean dirty = false;
+    private long dirtyFrameNanos = -1;
+    private long suppressedInvalidations = 0;
+
+    // METRICS
+    private AXPowerMetrics metrics = null;
+
+    // RENDER THREAD
+    private RenderThreadLoop loop = null;
+
+    // size of the drawable (dp) where it's laid out by its intrinsic size, such as compound drawables
+    private static final int INTRINSIC_SIZE = 48;
+
+    // the trail is drawn once, as long and as thick as the middle one of the three old shadows
+    private static final int TRAIL_STEP = 2;
+    private static final int TRAIL_ALPHA = 120;
+
+    // ANIMATION DATA
+    private final FrameModel model = new FrameModel(new FrameModel.Host() {
+        @Override
+        public void onRoundStart() {
+            isRunning = true;
+            // the vectors follow the rounds of the engine, the phase they have lost in a stall is recovered here
+            if (loop != null) loop.restart();
+        }
+
+        @Override
+        public void onMotionEnd(int motion) {
+            AXPowerDrawable.this.onMotionEnd(motion);
+        }
+
+        @Override
+        public void onFrame(boolean loopOnly) {
+            AXPowerDrawable.this.onFrame(loopOnly);
+        }
+    });
+    private final AnimationEngine engine = new AnimationEngine(model.getTimeline());
+
+    protected enum InnerState {
+        POWER, SUCCESS
+    }
+
+    public AXPowerDrawable(@NonNull Context context) {
+        resources = context.getResources();
+        density = resources.getDisplayMetrics().density;
+        geometry = new Geometry(density);
+        thickness = 4 * density;
+        innerThickness = 3 * density;
+
+        bounds = new RectF();
+        innerBounds = new RectF();
+
+        paint = new Paint();
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setAntiAlias(true);
+        paint.setDither(true);
+
+        trailPaint = new Paint();
+        trailPaint.setStyle(Paint.Style.STROKE);
+        trailPaint.setStrokeJoin(Paint.Join.ROUND);
+        trailPaint.setStrokeCap(Paint.Cap.ROUND);
+        trailPaint.setAntiAlias(true);
+        trailPaint.setDither(true);
+
+        innerPaint = new Paint();
+        innerPaint.setStyle(Paint.Style.STROKE);
+        innerPaint.setStrokeJoin(Paint.Join.ROUND);
+        innerPaint.setStrokeCap(Paint.Cap.ROUND);
+        innerPaint.setAntiAlias(true);
+        innerPaint.setDither(true);
+
+        AXPowerTransition.copyDefaults(transitions);
+        updatePaint();
+    }
+
+    @Override
+    protected void onBoundsChange(Rect rect) {
+        super.onBoundsChange(rect);
+        updateBounds();
+    }
+
+    /**
+     * update drawable bounds, the indicator is drawn in the center square of the bounds.
+     * The geometry is recomputed only if the bounds or the thicknesses have been changed,
+     * and it's rescaled in place, so a running animation continues on the new bounds.
+     */
+    protected void updateBounds() {
+        final Rect rect = getBounds();
+        geometry.setFrame(rect.left, rect.top, rect.right, rect.bottom, thickness, innerThickness);
+        size = geometry.getSize();
+        if (!geometry.layout(calculateInnerSize(size))) return;
+
+        final float[] values = geometry.getValues();
+        bounds.set(values[Geometry.BOUNDS], values[Geometry.BOUNDS + 1],
+                values[Geometry.BOUNDS + 2], values[Geometry.BOUNDS + 3]);
+        innerBounds.set(values[Geometry.INNER_BOUNDS], values[Geometry.INNER_BOUNDS + 1],
+                values[Geometry.INNER_BOUNDS + 2], values[Geometry.INNER_BOUNDS + 3]);
+
+        updateIcons();
+        rescaleInnerLines();
+
+        stateCache.invalidate();
+        if (loop != null) {
+            if (!hasDefaultProportions()) loop.stop();
+            loop.setBounds(Math.round(geometry.get(Geometry.SQUARE)), Math.round(geometry.get(Geometry.SQUARE + 1)), size);
+        }
+        invalidateFrame();
+    }
+
+    /**
+     * keep the revealed parts of the power's line and the check mark on the rebuilt icons.
+     * The running segments read the new lengths on their next frame, so only the settled lengths are rescaled.
+     */
+    private void rescaleInnerLines() {
+        model.setIconLengths(icons.getPowerLength(), icons.getSuccessLength1(),
+                icons.getSuccessLength() - icons.getSuccessLength1());
+        if (!isRunning() && (state == State.POWER || state == State.SUCCEED))
+            model.showIcon();
+    }
+
+    /** calculate and return innerView size */
+    protected float calculateInnerSize(int size) {
+        return Kinematics.innerSize(size, density, innerThickness);
+    }
+
+    /** build the lines of the power and the success icons */
+    protected void updateIcons() {
+        icons.update(geometry);
+    }
+
+    /**
+     * resume the state which has been stopped by {@link #onDetached()}, the host has been attached again.
+     * The loading and the reloading start over, an interrupted motion of any other state jumps to its end
+     * and a queued state starts right away.
+     */
+    void onAttached() {
+        if (state == State.HIDDEN || isRunning()) return;
+
+        final State next = getNextState();
+        nextState = null;
+        if (state == State.RELOADING) {
+            // the reloading can't be queued behind itself, it starts over from the power
+            jumpTo(State.POWER);
+            requestState(State.RELOADING);
+        } else {
+            applyState(state, false);
+        }
+        if (next != getNextState())
+            applyState(next, true);
+    }
+
+    /**
+     * stop the animations and release the cached rendering, the host has been detached.
+     * Nothing of the stopped transition runs after this, its segments are dropped by the engine.
+     */
+    void onDetached() {
+        stopAnimators();
+        stateCache.release();
+        dirty = false;
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        if (changed) {
+            dirty = false;
+            stopAnimators();
+            if (!visible) {
+                applyState(state, false);
+            } else {
+                applyState(state, true);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        if (metrics == null) {
+            drawFrame(canvas);
+        } else {
+            final long begin = System.nanoTime();
+            drawFrame(canvas);
+            metrics.onDraw(System.nanoTime() - begin);
+        }
+        listeners.onFrameDrawn();
+    }
+
+    /** draw the current frame, the idle states are drawn from the cache */
+    private void drawFrame(Canvas canvas) {
+        dirty = false;
+
+        // IDLE STATES
+        if (!isRunning && !engine.isRunning() && (state == State.POWER || state == State.SUCCEED)) {
+            final Rect rect = getBounds();
+            if (stateCache.draw(canvas, state.ordinal(), rect.right, rect.bottom)) return;
+        }
+
+        drawState(canvas);
+    }
+
+    /** draw the current state without any animation, for the layout editor */
+    void drawPreview(@NonNull Canvas canvas) {
+        float from = -90;
+        float circle = 360 - start;
+        canvas.drawArc(bounds, from, circle, false, paint);
+
+        if (innerView) {
+            if (model.getIcon() == FrameModel.ICON_POWER) {
+                canvas.drawArc(innerBounds, -45, 270, false, innerPaint);
+                icons.drawPowerLine(canvas, 0, icons.getPowerLength(), innerPaint);
+            } else {
+                icons.drawSuccess(canvas, icons.getSuccessLength(), innerPaint);
+            }
+        }
+    }
+
+    /** draw the main circle and the innerView */
+    protected void drawState(Canvas canvas) {
+        // the loop draws the main circle and the power's arc on the RenderThread
+        if (loop != null && loop.isRunning()) {
+            loop.draw(canvas, innerView);
+            if (innerView)
+                icons.drawPowerLine(canvas, powerLineFrom, powerLineTo, innerPaint);
+            return;
+        }
+
+        drawTrail(canvas);
+
+        float from = start - 90;
+        float circle = end - start;
+        canvas.drawArc(bounds, from, circle, false, paint);
+
+        if (innerView) {
+            canvas.drawArc(innerBounds, innerStart - 90, innerEnd - innerStart, false, innerPaint);
+            icons.drawPowerLine(canvas, powerLineFrom, powerLineTo, innerPaint);
+            icons.drawSuccess(canvas, successLength, innerPaint);
+        }
+    }
+
+    /**
+     * draw the velocity trail of the main circular in a single pass,
+     * the trail of the start and the end are two arcs of one path.
+     */
+    protected void drawTrail(Canvas canvas) {
+        if (startV <= 0 && endV <= 0) return;
+
+        trailPath.rewind();
+        if (startV > 0) {
+            float length = getArcShadowLength(true, TRAIL_STEP);
+            trailPath.addArc(bounds, start - 90 - length, length);
+        }
+        if (endV > 0) {
+            float length = getArcShadowLength(false, TRAIL_STEP);
+            trailPath.addArc(bounds, end - 90, length);
+        }
+        canvas.drawPath(trailPath, trailPaint);
+    }
+
+    /** calculate shadow size of the main circular depends on the velocity */
+    protected float getArcShadowLength(boolean isStart, int step) {
+        if (isStart) {
+            return Kinematics.trailLength(startV, !focusOnEnd, step);
+        } else {
+            return Kinematics.trailLength(endV, focusOnEnd, step);
+        }
+    }
+
+    // PRIVATE METHODS
+
+    /** show the indicator */
+    private void show(boolean animation) {
+        if (animation) {
+            showWithAnimation();
+        } else {
+            stopAnimators();
+            model.settle(model.getIcon());
+            invalidateFrame();
+        }
+    }
+
+    /** start showing animation */
+    private void showWithAnimation() {
+        stopAnimators();
+        isRunning = true;
+        model.show(showDuration);
+    }
+
+    /** start loading (main circular) animation */
+    private void startLoading() {
+        isRunning = true;
+        // the loading loop rewinds itself, the round ends and the delay passes on the same timeline
+        final boolean repeat = state == State.LOADING;
+        // the progress of the previous loading has been cleared, and no progress has been set for this one
+        if (repeat && progressSampler.get() < 0) model.clearProgress();
+        model.loading(indeterminateDuration, delay, getInnerLoadingRatio(), repeat);
+
+        if (repeat && !model.isDeterminate() && canLoopOnRenderThread())
+            startRenderThreadLoop();
+    }
+
+    /**
+     * the loop of the vectors has the default timing, the default proportions and the power's arc only,
+     * the frames of the engine are used for any other loading.
+     */
+    private boolean canLoopOnRenderThread() {
+        return renderThreadLoading && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N_MR1
+                && !engine.isVirtualClock() && !model.isDeterminate()
+                && indeterminateDuration == RenderThreadLoop.DURATION && delay == RenderThreadLoop.DELAY
+                && hasDefaultProportions() && getNextInnerState() == InnerState.POWER;
+    }
+
+    /** the vectors have been drawn for a 48dp indicator with the default thicknesses, their strokes scale with it */
+    private boolean hasDefaultProportions() {
+        return thickness == 4 * density && innerThickness == 3 * density
+                && Math.abs(size - INTRINSIC_SIZE * density) < 1;
+    }
+
+    /** start the loop of the vectors along with the loading round, the engine keeps timing the rounds */
+    private void startRenderThreadLoop() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N_MR1) return;
+
+        if (loop == null) {
+            loop = new RenderThreadLoop(resources, this);
+            final Rect rect = getBounds();
+            loop.setBounds(Math.round(rect.left + (rect.width() - size) / 2f),
+                    Math.round(rect.top + (rect.height() - size) / 2f), size);
+            loop.setColors(color, innerColor, alpha);
+            loop.setColorFilter(paint.getColorFilter());
+        }
+        loop.start();
+    }
+
+    /** the displayed progress has been changed */
+    private void onProgressFrame(float progress, float velocity) {
+        if (!model.isDeterminate() && loop != null) loop.stop();
+        model.setProgress(progress, velocity);
+        if (state == State.LOADING)
+            invalidateFrame();
+    }
+
+    /** the loading is indeterminate again, the next round of the engine moves the main circle */
+    private void onProgressCleared() {
+        model.clearProgress();
+        invalidateFrame();
+    }
+
+    /** return power loading acceleration ratio */
+    protected float getInnerLoadingRatio() {
+        return Kinematics.innerLoadingRatio(indeterminateDuration);
+    }
+
+    /** start changing state to the power from the success */
+    private void backToShowingFromSuccess() {
+        startReloadAnimation(indeterminateDuration);
+        model.reloadIcon(indeterminateDuration);
+    }
+
+    /** start reloading animation */
+    protected void startReloadAnimation(final long duration) {
+        model.reload(duration);
+    }
+
+    // FRAME MODEL
+
+    /** a motion of the model has been finished */
+    private void onMotionEnd(int motion) {
+        switch (motion) {
+            case FrameModel.MOTION_SHOW:
+                stopAnimators();
+                animationFinished();
+                break;
+
+            case FrameModel.MOTION_SHOW_LINE:
+                animationFinished();
+                break;
+
+            case FrameModel.MOTION_LOADING:
+                if (state == State.LOADING && getNextState() == State.LOADING) {
+                    // wait for the next round, a new state may start right now
+                    isRunning = false;
+                    nextState = null;
+                    if (metrics != null) metrics.onAnimationEnded();
+                    listeners.onAnimationEnded(State.LOADING, State.LOADING);
+                } else {
+                    animationFinished();
+                }
+                break;
+
+            case FrameModel.MOTION_RELOAD:
+                if (metrics != null) metrics.onAnimationEnded();
+
+                changeState(State.RELOADING, State.POWER);
+                listeners.onAnimationEnded(State.RELOADING, state);
+                break;
+        }
+    }
+
+    /**
+     * all segments of the current frame have been evaluated
+     * @param loopOnly true if only the main circle and the power's arc have been moved
+     */
+    private void onFrame(boolean loopOnly) {
+        // the loop animates itself, only the other segments need a new frame
+        if (loopOnly && loop != null && loop.isRunning()) return;
+        invalidateFrame();
+    }
+
+    /** copy the frame of the model to the fields which are drawn */
+    private void syncFrame() {
+        final FrameModel.Frame frame = model.getFrame();
+        start = frame.start;
+        end = frame.end;
+        startV = frame.startV;
+        endV = frame.endV;
+        focusOnEnd = frame.focusOnEnd;
+        innerStart = frame.innerStart;
+        innerEnd = frame.innerEnd;
+        powerLineFrom = frame.powerLineFrom;
+        powerLineTo = frame.powerLineTo;
+        successLength = frame.successLength;
+        innerPaint.setAlpha((int) (alpha * frame.innerAlpha));
+    }
+
+    /** stop all animators */
+    private void stopAnimators() {
+        engine.cancel();
+        if (loop != null) loop.stop();
+
+        model.stop();
+        isRunning = false;
+        updatePaint();
+    }
+
+    /** update ui */
+    protected void updatePaint() {
+        paint.setColor(color);
+        innerPaint.setColor(innerColor);
+        innerPaint.setAlpha(alpha);
+        paint.setAlpha(alpha);
+        innerPaint.setStrokeWidth(innerThickness);
+        paint.setStrokeWidth(thickness);
+        paint.setPathEffect(fastRendering ? null : cornerPathEffect);
+        innerPaint.setPathEffect(fastRendering ? null : cornerPathEffect);
+        trailPaint.setColor(color);
+        trailPaint.setAlpha(TRAIL_ALPHA * alpha / 255);
+        trailPaint.setStrokeWidth(thickness / (TRAIL_STEP + 1));
+        if (loop != null) loop.setColors(color, innerColor, alpha);
+        stateCache.invalidate();
+        invalidateFrame();
+    }
+
+    /**
+     * invalidate the drawable once per frame,
+     * any other invalidation of the same frame before the next draw is redundant and will be suppressed.
+     * The next frame of the engine invalidates again, so a draw which the host has skipped doesn't freeze the animation.
+     */
+    protected void invalidateFrame() {
+        syncFrame();
+        if (dirty && engine.isRunning() && dirtyFrameNanos == engine.getFrameTimeNanos()) {
+            suppressedInvalidations++;
+            return;
+        }
+        if (getCallback() == null) return;
+        dirty = true;
+        dirtyFrameNanos = engine.getFrameTimeNanos();
+        if (metrics != null) metrics.onInvalidate();
+        invalidateSelf();
+    }
+
+    /** go to the next state */
+    protected void startNextState() {
+        State currentState = state;
+        State nextState = getNextState();
+        if (currentState == nextState) return;
+        changeState(currentState, nextState);
+    }
+
+    /** change state */
+    protected void changeState(State currentState, State nextState) {
+        if (metrics != null) metrics.onStateChanged(currentState, nextState);
+        stopAnimators();
+        state = nextState;
+        this.nextState = null;
+
+        final AXPowerTransition transition = transitions[AXPowerTransition.index(currentState, nextState)];
+        if (transition.motion == AXPowerTransition.Motion.NONE) {
+            jumpTo(transition.finalState);
+        } else {
+            isRunning = true;
+            prepareInnerView(transition.innerAction);
+            startMotion(transition.motion, nextState);
+        }
+        // the exit motion has taken the progress sweep
+        if (currentState == State.LOADING && nextState != State.LOADING) endProgress();
+
+        engine.start();
+
+        if (currentState != nextState)
+            listeners.onStateChanged(currentState, nextState, true);
+    }
+
+    /** prepare the innerView for the motion of a transition */
+    private void prepareInnerView(AXPowerTransition.InnerAction action) {
+        switch (action) {
+            case HIDE_POWER_LINE:
+                model.hidePowerLine();
+                break;
+            case HIDE_LINES:
+                model.hideLines();
+                break;
+        }
+    }
+
+    /** schedule the animation of the main circle of a transition */
+    private void startMotion(AXPowerTransition.Motion motion, State nextState) {
+        switch (motion) {
+            case SHOW:
+                if (nextState == State.POWER || nextState == State.SUCCEED)
+                    model.setIcon(toIcon(findInnerState(nextState)));
+                show(true);
+                break;
+            case LOADING:
+                startLoading();
+                break;
+            case SUCCEED:
+                isRunning = true;
+                model.succeed(succeedDuration, delay, getInnerLoadingRatio());
+                break;
+            case RELOAD:
+                startReloadAnimation(indeterminateDuration);
+                break;
+            case BACK_FROM_LOADING:
+                model.backFromLoading();
+                break;
+            case BACK_FROM_SUCCESS:
+                backToShowingFromSuccess();
+                break;
+        }
+    }
+
+    /** show a static state right away */
+    private void jumpTo(State state) {
+        stopAnimators();
+        nextState = null;
+        if (metrics != null) metrics.onQueueCleared();
+        this.state = state;
+
+        if (state == State.HIDDEN) {
+            model.hide();
+        } else {
+            model.settle(toIcon(findInnerState(state)));
+        }
+        syncFrame();
+    }
+
+    /** last animation has been finished, call the listener and go to the next state */
+    protected void animationFinished() {
+        if (metrics != null) metrics.onAnimationEnded();
+        State currentState = state;
+        State nextState = getNextState();
+        changeState(currentState, nextState);
+
+        listeners.onAnimationEnded(currentState, nextState);
+    }
+
+    /** find innerState by the state */
+    protected @NonNull InnerState findInnerState(State state) {
+        return (state == State.SUCCEED) ? InnerState.SUCCESS : InnerState.POWER;
+    }
+
+    /** find state by the innerState */
+    protected @NonNull State findState(InnerState state) {
+        return (state == InnerState.POWER) ? State.POWER : State.SUCCEED;
+    }
+
+    /** find next innerState */
+    protected @NonNull InnerState getNextInnerState() {
+        return toInnerState(model.getNextIcon());
+    }
+
+    /** return the innerState which shows the icon of the model */
+    private static @NonNull InnerState toInnerState(int icon) {
+        return icon == FrameModel.ICON_SUCCESS ? InnerState.SUCCESS : InnerState.POWER;
+    }
+
+    /** return the icon of the model which shows the innerState */
+    private static int toIcon(InnerState state) {
+        return state == InnerState.SUCCESS ? FrameModel.ICON_SUCCESS : FrameModel.ICON_POWER;
+    }
+
+    // DRAWABLE
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha == alpha) return;
+        this.alpha = alpha;
+        updatePaint();
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        innerPaint.setColorFilter(colorFilter);
+        trailPaint.setColorFilter(colorFilter);
+        if (loop != null) loop.setColorFilter(colorFilter);
+        stateCache.invalidate();
+        invalidateFrame();
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return Math.round(INTRINSIC_SIZE * density);
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return Math.round(INTRINSIC_SIZE * density);
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    /** show the state which has been set by {@link #setStartState(State)}, if the drawable is hidden */
+    @Override
+    public void start() {
+        start(true);
+    }
+
+    /** show the start state, if the drawable is hidden */
+    void start(boolean animation) {
+        if (state == State.HIDDEN)
+            applyState(findState(toInnerState(model.getIcon())), animation);
+    }
+
+    /** stop the running animation and jump to the current state */
+    @Override
+    public void stop() {
+        applyState(state, false);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return isRunning || engine.isRunning();
+    }
+
+    // PUBLIC METHODS
+
+    /**
+     * set the listener of the animator, it replaces the listener which has been set before.
+     * The listeners which have been added by {@link #addAnimatorListener(AnimatorListener)} are kept.
+     * It must be called on the UI thread.
+     */
+    @UiThread
+    public void setAnimatorListener(@Nullable AnimatorListener listener) {
+        if (this.listener != null) listeners.remove(this.listener);
+        this.listener = listener;
+        if (listener != null) listeners.add(listener);
+    }
+
+    /**
+     * add a listener of the animator, it must be called on the UI thread
+     * @see #removeAnimatorListener(AnimatorListener)
+     */
+    @UiThread
+    public void addAnimatorListener(@NonNull AnimatorListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * remove a listener of the animator, it must be called on the UI thread
+     */
+    @UiThread
+    public void removeAnimatorListener(@NonNull AnimatorListener listener) {
+        if (this.listener == listener) this.listener = null;
+        listeners.remove(listener);
+    }
+
+    /**
+     * set whether the events of the animator should be delivered after the frame is drawn.
+     * Listeners won't run in the middle of a transition, so slow listeners don't delay the animation.
+     */
+    public void setBatchedNotificationsEnabled(boolean enabled) {
+        listeners.setBatched(enabled);
+    }
+
+    /**
+     * check whether the events of the animator are delivered after the frame is drawn
+     */
+    public boolean isBatchedNotificationsEnabled() {
+        return listeners.isBatched();
+    }
+
+    /**
+     * set current AXPowerDrawable's state
+     *
+     * @param state : next AXPowerDrawable's state
+     * @see AXPowerDrawable#setState(State,boolean)
+     */
+    public void setState(@NonNull State state) {
+        setState(state, true);
+    }
+
+    /**
+     * set current AXPowerDrawable's state
+     *
+     * @param state : next AXPowerDrawable's state
+     * @param animation : If you enable animation, new state will be queued and the
+     *                  new animation will run after the end of the active animation.
+     *                  It may be called from any thread, the latest state is applied on the next frame of the UI thread.
+     * @see AXPowerView.State
+     */
+    public void setState(@NonNull State state, boolean animation) {
+        if (!StateMailbox.isUiThread()) {
+            mailbox.post(state, animation);
+            return;
+        }
+        mailbox.clear();
+        applyState(state, animation);
+    }
+
+    /** apply the state on the UI thread */
+    private void applyState(State state, boolean animation) {
+        if (animation) {
+            requestState(state);
+        } else if (state == State.LOADING) {
+            // loading has no static frame, it starts from the power
+            jumpTo(State.POWER);
+            requestState(State.LOADING);
+        } else if (state == State.RELOADING) {
+            requestState(State.RELOADING);
+        } else {
+            if (this.state == State.LOADING) endProgress();
+            jumpTo(state);
+        }
+    }
+
+    /** the loading has been left, its progress isn't carried over to the next loading */
+    private void endProgress() {
+        if (progressSampler.get() >= 0)
+            progressSampler.set(ProgressSampler.INDETERMINATE);
+    }
+
+    /** queue the state, it starts right away if there is no running animation */
+    private void requestState(State state) {
+        State currentState = this.state;
+        State nextState = this.nextState;
+        if (currentState == nextState) return;
+        this.nextState = state;
+        if (metrics != null) metrics.onStateRequested();
+
+        if (!isRunning) {
+            startNextState();
+        } else {
+            listeners.onStateChanged(currentState, state, false);
+        }
+    }
+
+    /**
+     * get the current AXPowerDrawable's state
+     * @return the current state.
+     */
+    public @NonNull State getCurrentState() {
+        return state;
+    }
+
+    /**
+     * get the next AXPowerDrawable's state
+     * @return the next state.
+     */
+    public @NonNull State getNextState() {
+        return nextState != null ? nextState : state;
+    }
+
+    /**
+     * set the state which will be shown by {@link #start()}, while the drawable is hidden
+     */
+    public void setStartState(@NonNull State state) {
+        model.setIcon(toIcon(findInnerState(state)));
+    }
+
+    /**
+     * set color of the main circle
+     */
+    public void setColor(int color) {
+        this.color = color;
+        updatePaint();
+    }
+
+    /**
+     * get color of the main circle
+     * @return the main circle color
+     */
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * set color of the innerView
+     */
+    public void setInnerColor(int innerColor) {
+        this.innerColor = innerColor;
+        updatePaint();
+    }
+
+    /**
+     * get color of the innerView
+     * @return the innerView color
+     */
+    public int getInnerColor() {
+        return innerColor;
+    }
+
+    /**
+     * set thickness of the main circle
+     */
+    public void setThickness(float thickness) {
+        if (this.thickness == thickness) return;
+        this.thickness = thickness;
+        updatePaint();
+        updateBounds();
+    }
+
+    /**
+     * get thickness of the main circle
+     * @return the main circle thickness.
+     */
+    public float getThickness() {
+        return thickness;
+    }
+
+    /**
+     * set thickness of the innerView
+     */
+    public void setInnerThickness(float innerThickness) {
+        if (this.innerThickness == innerThickness) return;
+        this.innerThickness = innerThickness;
+        updatePaint();
+        updateBounds();
+    }
+
+    /**
+     * get thickness of the innerView
+     * @return the innerView circle thickness.
+     */
+    public float getInnerThickness() {
+        return innerThickness;
+    }
+
+    /**
+     * set showing animation duration
+     */
+    public void setShowDuration(long showDuration) {
+        this.showDuration = showDuration;
+    }
+
+    /**
+     * get showing animation duration
+     * @return showing animation duration
+     */
+    public long getShowDuration() {
+        return showDuration;
+    }
+
+    /**
+     * set loading animation duration
+     */
+    public void setIndeterminateDuration(long indeterminateDuration) {
+        this.indeterminateDuration = indeterminateDuration;
+    }
+
+    /**
+     * get loading animation duration
+     * @return loading animation duration
+     */
+    public long getIndeterminateDuration() {
+        return indeterminateDuration;
+    }
+
+    /**
+     * set succeed animation duration
+     */
+    public void setSucceedDuration(long succeedDuration) {
+        this.succeedDuration = succeedDuration;
+    }
+
+    /**
+     * get succeed animation duration
+     * @return succeed animation duration
+     */
+    public long getSucceedDuration() {
+        return succeedDuration;
+    }
+
+    /**
+     * set loading animation delay
+     */
+    public void setDelay(long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * get loading animation delay
+     * @return loading animation delay
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+    /**
+     * check whether animation is running
+     * @return true if animation is running
+     */
+    public boolean isAnimationRunning() {
+        return isRunning;
+    }
+
+    /**
+     * check whether innerView is enabled
+     * @return true if innerView is enabled
+     */
+    public boolean isInnerViewEnabled() {
+        return innerView;
+    }
+
+    /**
+     * set the innerView enabled
+     */
+    public void setInnerViewEnabled(boolean innerView) {
+        this.innerView = innerView;
+        model.setInnerView(innerView);
+        stateCache.invalidate();
+    }
+
+    /**
+     * get number of the redundant invalidations which have been suppressed,
+     * the drawable invalidates itself at most once per frame.
+     * @return number of the suppressed invalidations
+     */
+    public long getSuppressedInvalidationCount() {
+        return suppressedInvalidations;
+    }
+
+    /**
+     * set the progress of the loading, the main circle sweeps from the top to the progress.
+     * It may be called from any thread and at any rate, the latest progress is drawn once per frame.
+     * The progress belongs to a single loading, it's cleared once the drawable leaves the LOADING state.
+     * @param progress : between 0 and 1
+     * @see #clearProgress()
+     */
+    public void setProgress(float progress) {
+        if (Float.isNaN(progress)) return;
+        progressSampler.set(Math.max(0, Math.min(1, progress)));
+    }
+
+    /**
+     * get the progress of the loading
+     * @return the latest progress between 0 and 1, or -1 if the loading is indeterminate
+     */
+    public float getProgress() {
+        return progressSampler.get();
+    }
+
+    /**
+     * make the loading indeterminate again
+     */
+    public void clearProgress() {
+        progressSampler.set(ProgressSampler.INDETERMINATE);
+    }
+
+    /**
+     * set the transition between two states, the table of transitions is looked up by every state change
+     * @param transition : the new transition, or null to restore the default one
+     */
+    public void setTransition(@NonNull State from, @NonNull State to, @Nullable AXPowerTransition transition) {
+        transitions[AXPowerTransition.index(from, to)] =
+                transition != null ? transition : AXPowerTransition.getDefault(from, to);
+    }
+
+    /**
+     * get the transition between two states
+     * @return the transition which runs by changing the state from {@code from} to {@code to}
+     */
+    public @NonNull AXPowerTransition getTransition(@NonNull State from, @NonNull State to) {
+        return transitions[AXPowerTransition.index(from, to)];
+    }
+
+    /**
+     * set the shared ticker enabled,
+     * all drawables with the shared ticker are animated and invalidated by a single frame callback
+     * and their loading loops stay in phase.
+     */
+    public void setSharedTickerEnabled(boolean enabled) {
+        engine.setShared(enabled);
+    }
+
+    /**
+     * check whether the shared ticker is enabled
+     * @return true if the drawable is animated by the shared ticker
+     */
+    public boolean isSharedTickerEnabled() {
+        return engine.isShared();
+    }
+
+    /**
+     * set the RenderThread loading enabled,
+     * the steady loading loop is drawn by animated vectors and keeps spinning while the UI thread is busy.
+     * It needs API 25+, the default loading timing and takes effect from the next loading.
+     */
+    public void setRenderThreadLoadingEnabled(boolean enabled) {
+        if (renderThreadLoading == enabled) return;
+        renderThreadLoading = enabled;
+        if (!enabled && loop != null && loop.isRunning()) {
+            loop.stop();
+            invalidateFrame();
+        }
+    }
+
+    /**
+     * check whether the RenderThread loading is enabled
+     * @return true if the loading loop may run on the RenderThread
+     */
+    public boolean isRenderThreadLoadingEnabled() {
+        return renderThreadLoading;
+    }
+
+    /**
+     * set the metrics enabled,
+     * the drawable records its frames, draw times and invalidations.
+     * @see #getMetrics()
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled == (metrics != null)) return;
+        metrics = enabled ? new AXPowerMetrics(engine, mailbox, progressSampler) : null;
+        engine.setMetrics(metrics);
+    }
+
+    /**
+     * check whether the metrics are enabled
+     * @return true if the drawable records its metrics
+     */
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * get the recorded metrics
+     * @return the metrics, or null if the metrics are disabled
+     */
+    public @Nullable AXPowerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * set the virtual clock enabled,
+     * animations don't follow the display frames anymore and only move by {@link #stepFrame(long)} and {@link #seekTo(long)}.
+     */
+    public void setVirtualClockEnabled(boolean enabled) {
+        engine.setVirtualClock(enabled);
+    }
+
+    /**
+     * check whether the virtual clock is enabled
+     * @return true if the animations are driven by {@link #stepFrame(long)}
+     */
+    public boolean isVirtualClockEnabled() {
+        return engine.isVirtualClock();
+    }
+
+    /**
+     * advance the virtual clock and evaluate the next frame of the animations
+     * @param nanos : elapsed time since the previous frame, in nanoseconds
+     * @throws IllegalStateException if the virtual clock is disabled
+     */
+    public void stepFrame(long nanos) {
+        engine.stepFrame(nanos);
+    }
+
+    /**
+     * jump to an exact time of the running animation,
+     * the loading loop is seeked within its round. Does nothing if there is no animation.
+     * @param timeMs : time since the start of the animation, in milliseconds
+     */
+    public void seekTo(long timeMs) {
+        engine.seekTo(timeMs);
+    }
+
+    /**
+     * set the fast rendering enabled,
+     * strokes are rounded by their cap and join only and skip the path effect rasterization.
+     */
+    public void setFastRenderingEnabled(boolean enabled) {
+        if (fastRendering == enabled) return;
+        fastRendering = enabled;
+        updatePaint();
+    }
+
+    /**
+     * check whether the fast rendering is enabled
+     * @return true if strokes are drawn without the path effect
+     */
+    public boolean isFastRenderingEnabled() {
+        return fastRendering;
+    }
+}
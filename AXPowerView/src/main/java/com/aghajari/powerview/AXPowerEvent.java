@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.powerview.AXPowerView.State;
+
+/**
+ * An event of a stream which drives an {@link AXPowerView}, either a state or a progress.
+ * State events are shared instances, so a stream of states doesn't allocate.
+ *
+ * @author AmirHosseinAghajari
+ * @see AXPowerBinding
+ */
+public final class AXPowerEvent {
+
+    private static final State[] STATES = State.values();
+    private static final AXPowerEvent[] STATE_EVENTS = new AXPowerEvent[STATES.length * 2];
+    private static final AXPowerEvent INDETERMINATE = new AXPowerEvent(null, false, ProgressSampler.INDETERMINATE);
+
+    static {
+        for (State state : STATES) {
+            STATE_EVENTS[state.ordinal() << 1] = new AXPowerEvent(state, false, 0);
+            STATE_EVENTS[(state.ordinal() << 1) | 1] = new AXPowerEvent(state, true, 0);
+        }
+    }
+
+    private final State state;
+    private final boolean animation;
+    private final float progress;
+
+    private AXPowerEvent(State state, boolean animation, float progress) {
+        this.state = state;
+        this.animation = animation;
+        this.progress = progress;
+    }
+
+    /**
+     * @return an event which sets the state with animation
+     * @see AXPowerView#setState(State)
+     */
+    public static @NonNull AXPowerEvent state(@NonNull State state) {
+        return state(state, true);
+    }
+
+    /**
+     * @return an event which sets the state
+     * @see AXPowerView#setState(State, boolean)
+     */
+    public static @NonNull AXPowerEvent state(@NonNull State state, boolean animation) {
+        return STATE_EVENTS[(state.ordinal() << 1) | (animation ? 1 : 0)];
+    }
+
+    /**
+     * @return an event which sets the progress of the loading
+     * @see AXPowerView#setProgress(float)
+     */
+    public static @NonNull AXPowerEvent progress(float progress) {
+        return new AXPowerEvent(null, false, progress);
+    }
+
+    /**
+     * @return an event which makes the loading indeterminate again
+     * @see AXPowerView#clearProgress()
+     */
+    public static @NonNull AXPowerEvent clearProgress() {
+        return INDETERMINATE;
+    }
+
+    /** @return the state of the event, or null if it's a progress event */
+    public @Nullable State getState() {
+        return state;
+    }
+
+    /** @return true if the state of the event is animated */
+    public boolean isAnimated() {
+        return animation;
+    }
+
+    /** @return the progress of the event, or -1 if it makes the loading indeterminate */
+    public float getProgress() {
+        return progress;
+    }
+
+    /** apply the event to the drawable, from any thread */
+    void apply(@NonNull AXPowerDrawable drawable) {
+        if (state != null) {
+            drawable.setState(state, animation);
+        } else if (progress == ProgressSampler.INDETERMINATE) {
+            drawable.clearProgress();
+        } else {
+            drawable.setProgress(progress);
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return state != null ? "AXPowerEvent{state=" + state + ", animation=" + animation + "}"
+                : "AXPowerEvent{progress=" + progress + "}";
+    }
+}
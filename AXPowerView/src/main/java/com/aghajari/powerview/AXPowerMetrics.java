@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.aghajari.powerview.AXPowerView.State;
+import com.aghajari.powerview.core.LatencyHistogram;
+
+/**
+ * Rendering costs of a single {@link AXPowerDrawable}, enabled by {@link AXPowerDrawable#setMetricsEnabled(boolean)}.
+ * Metrics are recorded by counters and preallocated histograms only, so recording never allocates.
+ * The latency of each transition is split into the queue wait (from setState to the start of the transition)
+ * and the animation time (from the start to the end of the transition's animation).
+ * All methods must be called on the UI thread.
+ *
+ * @author AmirHosseinAghajari
+ */
+public final class AXPowerMetrics {
+
+    public interface Listener {
+        /** called about once per second while the drawable is being drawn */
+        void onMetricsUpdated(@NonNull AXPowerMetrics metrics);
+    }
+
+    private static final long WINDOW_NANOS = 1000000000L;
+    // the shortest interval between two animation frames is taken as vsync, faster than 240Hz is just jitter
+    private static final long MIN_FRAME_INTERVAL_NANOS = 4000000L;
+
+    private final AnimationEngine engine;
+    private final StateMailbox mailbox;
+    private final ProgressSampler progressSampler;
+    private Listener listener = null;
+
+    // FRAMES
+    private long framesDrawn, missedFrames;
+    private long drawNanos, maxDrawNanos;
+    private long lastFrameNanos = -1;
+    private long frameIntervalNanos = Long.MAX_VALUE;
+
+    // INVALIDATIONS
+    private long invalidations, windowInvalidations;
+    private long windowStartNanos = -1;
+    private float invalidationsPerSecond;
+
+    // TRANSITIONS
+    private static final int STATES = State.values().length;
+    private final LatencyHistogram[] queueLatencies = new LatencyHistogram[STATES * STATES];
+    private final LatencyHistogram[] animationLatencies = new LatencyHistogram[STATES * STATES];
+    private long requestNanos = -1;
+    private long transitionNanos = -1;
+    private int transition = -1;
+
+    AXPowerMetrics(@NonNull AnimationEngine engine, @NonNull StateMailbox mailbox,
+                   @NonNull ProgressSampler progressSampler) {
+        this.engine = engine;
+        this.mailbox = mailbox;
+        this.progressSampler = progressSampler;
+
+        // the metrics are opt-in, all histograms are created up front so recording a transition never allocates
+        for (int i = 0; i < queueLatencies.length; i++) {
+            queueLatencies[i] = new LatencyHistogram();
+            animationLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /** the drawable has been drawn */
+    void onDraw(long nanos) {
+        framesDrawn++;
+        drawNanos += nanos;
+        if (nanos > maxDrawNanos) maxDrawNanos = nanos;
+        updateWindow(System.nanoTime());
+    }
+
+    /** the drawable has been invalidated */
+    void onInvalidate() {
+        invalidations++;
+        windowInvalidations++;
+    }
+
+    /** an animation has been started, the time before isn't a missed frame */
+    void onAnimationStart() {
+        lastFrameNanos = -1;
+    }
+
+    /** the animation has been advanced to the given frame time */
+    void onAnimationFrame(long frameTimeNanos) {
+        if (lastFrameNanos >= 0) {
+            final long interval = frameTimeNanos - lastFrameNanos;
+            if (interval >= MIN_FRAME_INTERVAL_NANOS && interval < frameIntervalNanos)
+                frameIntervalNanos = interval;
+            if (frameIntervalNanos != Long.MAX_VALUE && interval > 0) {
+                final long frames = (interval + frameIntervalNanos / 2) / frameIntervalNanos;
+                if (frames > 1) missedFrames += frames - 1;
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+    }
+
+    /** a new state has been requested, the queue wait starts by the first pending request */
+    void onStateRequested() {
+        if (requestNanos < 0) requestNanos = System.nanoTime();
+    }
+
+    /** the queued states have been dropped by a state which has been applied without animation */
+    void onQueueCleared() {
+        requestNanos = -1;
+    }
+
+    /** a transition has been started, a transition which hasn't ended is dropped */
+    void onStateChanged(@NonNull State from, @NonNull State to) {
+        final long now = System.nanoTime();
+        transition = from.ordinal() * STATES + to.ordinal();
+        transitionNanos = now;
+        if (requestNanos >= 0) {
+            queueLatencies[transition].record((now - requestNanos) / 1000000);
+            requestNanos = -1;
+        }
+    }
+
+    /** the animation of the current transition has been ended */
+    void onAnimationEnded() {
+        if (transition < 0) return;
+        animationLatencies[transition].record((System.nanoTime() - transitionNanos) / 1000000);
+        transition = -1;
+    }
+
+    private void updateWindow(long now) {
+        if (windowStartNanos < 0) {
+            windowStartNanos = now;
+            return;
+        }
+        final long elapsed = now - windowStartNanos;
+        if (elapsed < WINDOW_NANOS) return;
+
+        invalidationsPerSecond = windowInvalidations * 1e9f / elapsed;
+        windowInvalidations = 0;
+        windowStartNanos = now;
+        if (listener != null)
+            listener.onMetricsUpdated(this);
+    }
+
+    // PUBLIC METHODS
+
+    /**
+     * set a listener which receives the metrics about once per second
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * get number of the frames which have been drawn
+     * @return number of the draws
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * get number of the animation frames which have missed vsync,
+     * vsync is the shortest interval between two animation frames.
+     * @return number of the skipped frames
+     */
+    public long getMissedFrames() {
+        return missedFrames;
+    }
+
+    /**
+     * get the total time of the draws
+     * @return total draw time in nanoseconds
+     */
+    public long getDrawNanos() {
+        return drawNanos;
+    }
+
+    /**
+     * get the longest draw
+     * @return maximum draw time in nanoseconds
+     */
+    public long getMaxDrawNanos() {
+        return maxDrawNanos;
+    }
+
+    /**
+     * get the total number of invalidations, without the suppressed ones
+     * @return number of the invalidations
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * get the invalidation rate of the last second which has been drawn
+     * @return invalidations per second
+     */
+    public float getInvalidationsPerSecond() {
+        return invalidationsPerSecond;
+    }
+
+    /**
+     * get number of the running animation segments
+     * @return number of the live animations
+     */
+    public int getActiveAnimationCount() {
+        return engine.getActiveSegmentCount();
+    }
+
+    /**
+     * get number of the pending callbacks of the drawable: the frame of the animations,
+     * the state which has been requested off the UI thread and the sampling of the progress, one of each at most
+     * @return number of the posted callbacks
+     */
+    public int getPendingCallbackCount() {
+        return (engine.isPosted() ? 1 : 0) + (mailbox.isPending() ? 1 : 0) + (progressSampler.isScheduled() ? 1 : 0);
+    }
+
+    /**
+     * get the queue wait of a transition,
+     * time between setState and the start of the transition in milliseconds
+     * @return histogram of the queue waits
+     */
+    public @NonNull LatencyHistogram getQueueLatency(@NonNull State from, @NonNull State to) {
+        return queueLatencies[from.ordinal() * STATES + to.ordinal()];
+    }
+
+    /**
+     * get the animation time of a transition,
+     * time between the start and the end of the transition's animation in milliseconds
+     * @return histogram of the animation times
+     */
+    public @NonNull LatencyHistogram getAnimationLatency(@NonNull State from, @NonNull State to) {
+        return animationLatencies[from.ordinal() * STATES + to.ordinal()];
+    }
+
+    /**
+     * reset all counters
+     */
+    public void reset() {
+        framesDrawn = 0;
+        missedFrames = 0;
+        drawNanos = 0;
+        maxDrawNanos = 0;
+        invalidations = 0;
+        windowInvalidations = 0;
+        windowStartNanos = -1;
+        invalidationsPerSecond = 0;
+        lastFrameNanos = -1;
+        requestNanos = -1;
+        transition = -1;
+        for (int i = 0; i < queueLatencies.length; i++) {
+            queueLatencies[i].reset();
+            animationLatencies[i].reset();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import androidx.annotation.NonNull;
+
+import com.aghajari.powerview.AXPowerView.State;
+
+/**
+ * A compiled plan of a transition between two states: how the innerView is prepared and how the main circle moves.
+ * Plans are immutable and looked up in the transition table of {@link AXPowerDrawable},
+ * the durations are read from the drawable once the transition starts.
+ *
+ * @author AmirHosseinAghajari
+ * @see AXPowerDrawable#setTransition(State, State, AXPowerTransition)
+ */
+public final class AXPowerTransition {
+
+    /** animation of the main circle */
+    public enum Motion {
+        /** no animation, jump to the final state */
+        NONE,
+        /** draw the circle and show the innerView of the next state */
+        SHOW,
+        /** a round of loading with the indeterminate duration, the power's arc spins */
+        LOADING,
+        /** a round of loading with the succeed duration, the check mark appears at the end */
+        SUCCEED,
+        /** hide the check mark and draw the power's arc again */
+        RELOAD,
+        /** show the power's line again after loading */
+        BACK_FROM_LOADING,
+        /** show the power icon again after the success */
+        BACK_FROM_SUCCESS
+    }
+
+    /** preparation of the innerView before the motion */
+    public enum InnerAction {
+        NONE,
+        /** hide the power's line by an animation */
+        HIDE_POWER_LINE,
+        /** hide the power's line and the check mark right away */
+        HIDE_LINES
+    }
+
+    final InnerAction innerAction;
+    final Motion motion;
+    final State finalState;
+
+    private AXPowerTransition(InnerAction innerAction, Motion motion, State finalState) {
+        this.innerAction = innerAction;
+        this.motion = motion;
+        this.finalState = finalState;
+    }
+
+    /**
+     * create an animated transition
+     * @param innerAction : preparation of the innerView
+     * @param motion : animation of the main circle, must not be {@link Motion#NONE}
+     */
+    public static @NonNull AXPowerTransition animate(@NonNull InnerAction innerAction, @NonNull Motion motion) {
+        if (motion == Motion.NONE)
+            throw new IllegalArgumentException("use jump() for a transition without animation");
+        return new AXPowerTransition(innerAction, motion, null);
+    }
+
+    /**
+     * create a transition without animation
+     * @param state : the state which will be shown right away, LOADING and RELOADING aren't static states
+     */
+    public static @NonNull AXPowerTransition jump(@NonNull State state) {
+        if (state == State.LOADING || state == State.RELOADING)
+            throw new IllegalArgumentException(state + " can't be shown without animation");
+        return new AXPowerTransition(InnerAction.NONE, Motion.NONE, state);
+    }
+
+    public @NonNull InnerAction getInnerAction() {
+        return innerAction;
+    }
+
+    public @NonNull Motion getMotion() {
+        return motion;
+    }
+
+    /** @return the state of a jump, or null for an animated transition */
+    public State getFinalState() {
+        return finalState;
+    }
+
+    // DEFAULT TABLE
+
+    private static final int STATES = State.values().length;
+    private static final AXPowerTransition[] DEFAULTS = new AXPowerTransition[STATES * STATES];
+
+    static {
+        final AXPowerTransition show = animate(InnerAction.NONE, Motion.SHOW);
+        final AXPowerTransition reload = animate(InnerAction.NONE, Motion.RELOAD);
+        final AXPowerTransition jumpToPower = jump(State.POWER);
+        final AXPowerTransition jumpToSucceed = jump(State.SUCCEED);
+        final AXPowerTransition jumpToHidden = jump(State.HIDDEN);
+
+        for (State from : State.values()) {
+            for (State to : State.values()) {
+                final AXPowerTransition transition;
+                if (to == State.HIDDEN) {
+                    transition = jumpToHidden;
+                } else if (from == State.HIDDEN) {
+                    transition = to == State.LOADING ? jumpToPower : show;
+                } else if (to == State.RELOADING) {
+                    transition = reload;
+                } else {
+                    transition = to == State.SUCCEED ? jumpToSucceed : jumpToPower;
+                }
+                DEFAULTS[index(from, to)] = transition;
+            }
+        }
+
+        DEFAULTS[index(State.POWER, State.LOADING)] = animate(InnerAction.HIDE_POWER_LINE, Motion.LOADING);
+        DEFAULTS[index(State.POWER, State.SUCCEED)] = animate(InnerAction.HIDE_POWER_LINE, Motion.SUCCEED);
+        DEFAULTS[index(State.LOADING, State.LOADING)] = animate(InnerAction.NONE, Motion.LOADING);
+        DEFAULTS[index(State.LOADING, State.POWER)] = animate(InnerAction.NONE, Motion.BACK_FROM_LOADING);
+        DEFAULTS[index(State.LOADING, State.SUCCEED)] = animate(InnerAction.HIDE_LINES, Motion.SUCCEED);
+        DEFAULTS[index(State.SUCCEED, State.POWER)] = animate(InnerAction.HIDE_LINES, Motion.BACK_FROM_SUCCESS);
+    }
+
+    /** @return index of the transition in a table */
+    static int index(@NonNull State from, @NonNull State to) {
+        return from.ordinal() * STATES + to.ordinal();
+    }
+
+    /** copy the default table into the given table */
+    static void copyDefaults(@NonNull AXPowerTransition[] table) {
+        System.arraycopy(DEFAULTS, 0, table, 0, DEFAULTS.length);
+    }
+
+    /** @return the default transition between two states */
+    static @NonNull AXPowerTransition getDefault(@NonNull State from, @NonNull State to) {
+        return DEFAULTS[index(from, to)];
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.view.Choreographer;
+
+import com.aghajari.powerview.core.Timeline;
+
+/**
+ * Drives the {@link Timeline} of an {@link AXPowerDrawable} from a single {@link Choreographer} frame callback.
+ * The engine either posts its own frame callback, gets advanced by the {@link SharedTicker}
+ * or follows a virtual clock which only moves by {@link #stepFrame(long)}.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class AnimationEngine implements Choreographer.FrameCallback {
+
+    private final Timeline timeline;
+
+    private boolean posted = false;
+    private boolean shared = false;
+    private long lastFrameNanos = -1;
+    private long frameNanos = -1;
+
+    // VIRTUAL CLOCK
+    private boolean virtualClock = false;
+    private long virtualNanos = 0;
+
+    private AXPowerMetrics metrics = null;
+
+    /** the segments are scheduled on the timeline by its owner, call {@link #start()} once all segments are added */
+    AnimationEngine(Timeline timeline) {
+        this.timeline = timeline;
+    }
+
+    /**
+     * advance the timeline by the {@link SharedTicker} instead of a frame callback of its own,
+     * a repeating timeline started on the ticker seeks into the round of the ticker's grid once,
+     * so all shared loops stay in phase without pausing between their rounds.
+     */
+    void setShared(boolean shared) {
+        if (this.shared == shared) return;
+        unregister();
+        this.shared = shared;
+        post();
+    }
+
+    boolean isShared() {
+        return shared;
+    }
+
+    /** follow the virtual clock instead of the display frames */
+    void setVirtualClock(boolean enabled) {
+        if (virtualClock == enabled) return;
+        unregister();
+        virtualClock = enabled;
+        if (enabled) {
+            timeline.rebase(virtualNanos);
+        } else {
+            timeline.rebase();
+        }
+        post();
+    }
+
+    boolean isVirtualClock() {
+        return virtualClock;
+    }
+
+    /** advance the virtual clock by the given nanoseconds and evaluate the frame */
+    void stepFrame(long nanos) {
+        if (!virtualClock)
+            throw new IllegalStateException("the virtual clock is disabled");
+
+        virtualNanos += Math.max(0, nanos);
+        tick(virtualNanos);
+        flush();
+    }
+
+    /** jump to the given time (milliseconds) of the timeline and evaluate it */
+    void seekTo(long time) {
+        timeline.seekTo(time);
+        if (virtualClock) timeline.rebase(virtualNanos);
+        flush();
+        if (timeline.isRunning()) {
+            post();
+        } else {
+            unregister();
+        }
+    }
+
+    /** record the frames in the metrics, null disables recording */
+    void setMetrics(AXPowerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** start the timeline from zero, does nothing if there is no scheduled segment */
+    void start() {
+        if (timeline.isRunning()) return;
+        if (metrics != null) metrics.onAnimationStart();
+        timeline.start();
+        // the virtual clock is known, so the first step moves the timeline by its whole frame
+        if (virtualClock) timeline.rebase(virtualNanos);
+        timeline.flush();
+        post();
+    }
+
+    /** cancel the timeline and remove all segments */
+    void cancel() {
+        timeline.cancel();
+        unregister();
+    }
+
+    boolean isRunning() {
+        return timeline.isRunning();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        tickFrame(frameTimeNanos);
+        flush();
+        post();
+    }
+
+    /**
+     * advance the timeline to the time of a display frame, once per frame.
+     * An engine which has left the shared ticker may still be ticked by it in the frame it posts its own callback.
+     */
+    void tickFrame(long frameTimeNanos) {
+        if (frameTimeNanos == lastFrameNanos) return;
+        lastFrameNanos = frameTimeNanos;
+        tick(frameTimeNanos);
+    }
+
+    /** advance the timeline to the given frame time */
+    private void tick(long frameTimeNanos) {
+        frameNanos = frameTimeNanos;
+        if (metrics != null && timeline.isRunning()) metrics.onAnimationFrame(frameTimeNanos);
+        timeline.tick(frameTimeNanos, shared && !virtualClock ? SharedTicker.getInstance().getEpochNanos() : -1);
+        if (!timeline.isRunning()) unregister();
+    }
+
+    /** notify the target if the last tick has changed anything */
+    void flush() {
+        timeline.flush();
+    }
+
+    private void post() {
+        if (timeline.isRunning() && !posted && !virtualClock) {
+            posted = true;
+            if (shared) {
+                SharedTicker.getInstance().register(this);
+            } else {
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    }
+
+    private void unregister() {
+        if (posted) {
+            posted = false;
+            if (!shared)
+                Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    /** @return time of the last frame which has advanced the timeline, in nanoseconds */
+    long getFrameTimeNanos() {
+        return frameNanos;
+    }
+
+    /** @return number of the segments which haven't ended yet */
+    int getActiveSegmentCount() {
+        return timeline.getActiveSegmentCount();
+    }
+
+    /** @return true if the engine is waiting for a frame callback or the shared ticker */
+    boolean isPosted() {
+        return posted;
+    }
+
+    /** @return true if the engine is waiting for the next tick of the shared ticker */
+    boolean isRegistered() {
+        return shared && posted;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Binds an {@link AXPowerView} to a {@link Flow.Publisher} with backpressure.
+ * At most {@link #BATCH} events are requested ahead, and the consumed ones are requested again once per frame,
+ * so the publisher is paced by the frames of the UI thread.
+ *
+ * @author AmirHosseinAghajari
+ */
+@RequiresApi(api = Build.VERSION_CODES.R)
+final class FlowBinding extends AXPowerBinding
+        implements Flow.Subscriber<AXPowerEvent>, Runnable, Choreographer.FrameCallback {
+
+    /** events which may be delivered during a frame, only the latest state and progress of them are drawn */
+    static final int BATCH = 8;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger consumed = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+
+    FlowBinding(@NonNull AXPowerDrawable drawable) {
+        super(drawable);
+    }
+
+    @Override
+    public void onSubscribe(@NonNull Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        // the binding may have been cancelled while subscribing
+        if (!isActive()) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(BATCH);
+    }
+
+    @Override
+    public void onNext(@NonNull AXPowerEvent event) {
+        if (!isActive()) return;
+        emit(event);
+        consumed.incrementAndGet();
+        if (scheduled.compareAndSet(false, true))
+            handler.post(this);
+    }
+
+    @Override
+    public void onError(@NonNull Throwable throwable) {
+        complete();
+    }
+
+    @Override
+    public void onComplete() {
+        complete();
+    }
+
+    @Override
+    void onCancel() {
+        final Flow.Subscription subscription = this.subscription;
+        if (subscription != null) subscription.cancel();
+    }
+
+    @Override
+    public void run() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled.set(false);
+        if (!isActive()) return;
+
+        final int count = consumed.getAndSet(0);
+        if (count > 0) subscription.request(count);
+    }
+}
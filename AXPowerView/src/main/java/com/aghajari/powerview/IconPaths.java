@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import com.aghajari.powerview.core.Geometry;
+
+/**
+ * The lines of the innerView icons, built once per geometry.
+ * A partially revealed line is drawn as a segment of its cached path, so no geometry is allocated per transition.
+ * The check mark is kept as two separate lines, so the corner path effect never rounds its corner.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class IconPaths {
+
+    private final Path powerLine = new Path();
+    private final Path successLine1 = new Path();
+    private final Path successLine2 = new Path();
+    private final PathMeasure powerMeasure = new PathMeasure();
+    private final PathMeasure successMeasure1 = new PathMeasure();
+    private final PathMeasure successMeasure2 = new PathMeasure();
+    private final Path segment = new Path();
+
+    private float powerLength, successLength1, successLength2;
+
+    /** rebuild the icons for the endpoints of the geometry */
+    void update(@NonNull Geometry geometry) {
+        final float[] points = geometry.getValues();
+        final int line = Geometry.POWER_LINE;
+        powerLine.rewind();
+        powerLine.moveTo(points[line], points[line + 1]);
+        powerLine.lineTo(points[line], points[line + 2]);
+        powerMeasure.setPath(powerLine, false);
+        powerLength = powerMeasure.getLength();
+
+        final int success = Geometry.SUCCESS;
+        successLine1.rewind();
+        successLine1.moveTo(points[success], points[success + 1]);
+        successLine1.lineTo(points[success + 2], points[success + 3]);
+        successMeasure1.setPath(successLine1, false);
+        successLength1 = successMeasure1.getLength();
+
+        successLine2.rewind();
+        successLine2.moveTo(points[success + 2], points[success + 3]);
+        successLine2.lineTo(points[success + 4], points[success + 5]);
+        successMeasure2.setPath(successLine2, false);
+        successLength2 = successMeasure2.getLength();
+    }
+
+    /** @return length of the power's line */
+    float getPowerLength() {
+        return powerLength;
+    }
+
+    /** @return length of the first line of the check mark */
+    float getSuccessLength1() {
+        return successLength1;
+    }
+
+    /** @return length of the whole check mark */
+    float getSuccessLength() {
+        return successLength1 + successLength2;
+    }
+
+    /** draw the part of the power's line between the given distances from its top */
+    void drawPowerLine(@NonNull Canvas canvas, float from, float to, @NonNull Paint paint) {
+        drawSegment(canvas, powerMeasure, from, to, paint);
+    }
+
+    /** draw the check mark up to the given distance from its left end */
+    void drawSuccess(@NonNull Canvas canvas, float length, @NonNull Paint paint) {
+        drawSegment(canvas, successMeasure1, 0, Math.min(length, successLength1), paint);
+        drawSegment(canvas, successMeasure2, 0, length - successLength1, paint);
+    }
+
+    private void drawSegment(Canvas canvas, PathMeasure measure, float from, float to, Paint paint) {
+        if (to <= from) return;
+
+        segment.rewind();
+        if (!measure.getSegment(from, to, segment, true)) return;
+        // segments aren't drawn on the hardware canvas of KitKat and earlier without this
+        if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.KITKAT)
+            segment.rLineTo(0, 0);
+        canvas.drawPath(segment, paint);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import com.aghajari.powerview.AXPowerView.AnimatorListener;
+import com.aghajari.powerview.AXPowerView.State;
+
+/**
+ * Dispatches the events of the animator to the registered listeners, on the UI thread.
+ * Listeners are kept in a copy-on-write array, so dispatching doesn't allocate and a listener may remove itself.
+ * Listeners are added and removed on the UI thread, the array is volatile so a dispatch never sees a stale one.
+ * In the batched mode the events are recorded (as ints) and delivered once the frame has been drawn,
+ * so listeners don't run in the middle of a transition.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class ListenerDispatcher implements Runnable, Choreographer.FrameCallback {
+
+    private static final AnimatorListener[] EMPTY = new AnimatorListener[0];
+    private static final State[] STATES = State.values();
+    private static final int NULL_STATE = 0xF;
+    private static final int STATE_CHANGED = 1 << 12;
+    private static final int ANIMATION_LOADED = 1 << 8;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private volatile AnimatorListener[] listeners = EMPTY;
+
+    private boolean batched = false;
+    private int[] events = new int[16];
+    private int count = 0;
+    private boolean framePosted = false, flushPosted = false;
+
+    /** add the listener, if it hasn't been added yet */
+    @UiThread
+    void add(@NonNull AnimatorListener listener) {
+        final AnimatorListener[] listeners = this.listeners;
+        for (AnimatorListener l : listeners) {
+            if (l == listener) return;
+        }
+
+        final AnimatorListener[] newListeners = new AnimatorListener[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = listener;
+        this.listeners = newListeners;
+    }
+
+    /** remove the listener, a running dispatch still reaches it */
+    @UiThread
+    void remove(@NonNull AnimatorListener listener) {
+        final AnimatorListener[] listeners = this.listeners;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] != listener) continue;
+
+            if (listeners.length == 1) {
+                this.listeners = EMPTY;
+            } else {
+                final AnimatorListener[] newListeners = new AnimatorListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                this.listeners = newListeners;
+            }
+            return;
+        }
+    }
+
+    /** deliver the events after the frame has been drawn, the pending events are delivered right away once disabled */
+    void setBatched(boolean batched) {
+        this.batched = batched;
+        if (!batched) deliver();
+    }
+
+    boolean isBatched() {
+        return batched;
+    }
+
+    void onStateChanged(State from, State to, boolean animationLoaded) {
+        if (listeners.length == 0) return;
+        final int event = STATE_CHANGED | (animationLoaded ? ANIMATION_LOADED : 0) | encode(from, to);
+        if (batched) {
+            record(event);
+        } else {
+            dispatch(event);
+        }
+    }
+
+    void onAnimationEnded(State currentState, State nextState) {
+        if (listeners.length == 0) return;
+        final int event = encode(currentState, nextState);
+        if (batched) {
+            record(event);
+        } else {
+            dispatch(event);
+        }
+    }
+
+    /** the frame has been drawn, deliver the recorded events once the drawing is done */
+    void onFrameDrawn() {
+        if (count > 0 && !flushPosted) {
+            flushPosted = true;
+            handler.post(this);
+        }
+    }
+
+    private void record(int event) {
+        if (count == events.length) {
+            final int[] newEvents = new int[count * 2];
+            System.arraycopy(events, 0, newEvents, 0, count);
+            events = newEvents;
+        }
+        events[count++] = event;
+
+        // in case the host doesn't draw, the events are delivered after the next frame
+        if (!framePosted) {
+            framePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePosted = false;
+        onFrameDrawn();
+    }
+
+    @Override
+    public void run() {
+        flushPosted = false;
+        deliver();
+    }
+
+    private void deliver() {
+        // listeners may queue more events, they're delivered in the same pass
+        for (int i = 0; i < count; i++) {
+            dispatch(events[i]);
+        }
+        count = 0;
+    }
+
+    private void dispatch(int event) {
+        final State from = decode(event >> 4);
+        final State to = decode(event);
+        final AnimatorListener[] listeners = this.listeners;
+        if ((event & STATE_CHANGED) != 0) {
+            final boolean animationLoaded = (event & ANIMATION_LOADED) != 0;
+            for (AnimatorListener listener : listeners) {
+                listener.onStateChanged(from, to, animationLoaded);
+            }
+        } else {
+            for (AnimatorListener listener : listeners) {
+                listener.onAnimationEnded(from, to);
+            }
+        }
+    }
+
+    private static int encode(State from, State to) {
+        return ((from == null ? NULL_STATE : from.ordinal()) << 4) | (to == null ? NULL_STATE : to.ordinal());
+    }
+
+    private static State decode(int bits) {
+        final int ordinal = bits & 0xF;
+        return ordinal == NULL_STATE ? null : STATES[ordinal];
+    }
+}
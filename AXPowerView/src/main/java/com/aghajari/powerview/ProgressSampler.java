@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Samples the determinate progress once per frame.
+ * The progress may be set from any thread at any rate, only its latest value is held (as the bits of a float)
+ * and the displayed progress follows it smoothly on the frames of the UI thread.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class ProgressSampler implements Runnable, Choreographer.FrameCallback {
+
+    interface Receiver {
+        /**
+         * the displayed progress has been changed, called on the UI thread
+         * @param velocity : speed of the progress's end, degrees per millisecond
+         */
+        void onProgressFrame(float progress, float velocity);
+        /** the progress has been cleared, called on the UI thread */
+        void onProgressCleared();
+    }
+
+    static final float INDETERMINATE = -1;
+
+    // the displayed progress covers 1 - 1/e of the remaining distance in this time
+    private static final float SMOOTHING_MS = 60;
+    private static final float SETTLED = 0.0005f;
+
+    private final AtomicInteger target = new AtomicInteger(Float.floatToIntBits(INDETERMINATE));
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Receiver receiver;
+
+    // UI THREAD
+    private float progress = 0;
+    private long lastFrameNanos = -1;
+
+    ProgressSampler(@NonNull Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    /** set the target progress between 0 and 1, or {@link #INDETERMINATE} */
+    void set(float progress) {
+        target.set(Float.floatToIntBits(progress));
+        schedule();
+    }
+
+    /** @return the latest target progress, or {@link #INDETERMINATE} */
+    float get() {
+        return Float.intBitsToFloat(target.get());
+    }
+
+    /** @return true if the sampling is waiting for its message or its next frame */
+    boolean isScheduled() {
+        return scheduled.get();
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) return;
+        if (StateMailbox.isUiThread()) {
+            run();
+        } else {
+            handler.post(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        final float goal = get();
+        if (goal < 0) {
+            progress = 0;
+            lastFrameNanos = -1;
+            receiver.onProgressCleared();
+            finish(goal);
+            return;
+        }
+
+        final float elapsed = lastFrameNanos < 0 ? 16 : Math.max(1, (frameTimeNanos - lastFrameNanos) / 1000000f);
+        final float previous = progress;
+        progress += (goal - progress) * (1 - (float) Math.exp(-elapsed / SMOOTHING_MS));
+
+        if (Math.abs(goal - progress) < SETTLED) {
+            progress = goal;
+            lastFrameNanos = -1;
+            receiver.onProgressFrame(progress, 0);
+            finish(goal);
+        } else {
+            lastFrameNanos = frameTimeNanos;
+            receiver.onProgressFrame(progress, Math.abs(progress - previous) * 360 / elapsed);
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /** stop sampling, unless the target has been changed in the meantime */
+    private void finish(float goal) {
+        scheduled.set(false);
+        if (Float.floatToIntBits(goal) != target.get())
+            schedule();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.drawable.AnimatedVectorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+/**
+ * The steady loading loop as a pair of animated vectors, the main circle and the power's arc.
+ * On a hardware canvas their animators run on the RenderThread, so the loop keeps spinning while the UI thread is busy.
+ * The keyframes are sampled from the loading kinematics with the default timing and the proportions of a 48dp indicator,
+ * see LoadingVectorTest of AXPowerCore. The vectors scale their strokes with their bounds and have no velocity trail,
+ * so they are used only for a 48dp indicator with the default thicknesses.
+ * The engine keeps timing the rounds and starts the loop over at each round, so a stalled UI thread doesn't leave
+ * the loop out of phase with the innerView and the state changes.
+ *
+ * @author AmirHosseinAghajari
+ */
+@RequiresApi(api = Build.VERSION_CODES.N_MR1)
+final class RenderThreadLoop implements Drawable.Callback {
+
+    /** timing of the loop which has been compiled into the vectors */
+    static final long DURATION = 600;
+    static final long DELAY = 80;
+
+    private final AXPowerDrawable host;
+    private final AnimatedVectorDrawable ring, inner;
+    private boolean running = false;
+
+    RenderThreadLoop(@NonNull Resources resources, @NonNull AXPowerDrawable host) {
+        this.host = host;
+        ring = load(resources, R.drawable.axpower_loading);
+        inner = load(resources, R.drawable.axpower_loading_inner);
+    }
+
+    private AnimatedVectorDrawable load(Resources resources, int id) {
+        AnimatedVectorDrawable drawable = (AnimatedVectorDrawable) resources.getDrawable(id, null).mutate();
+        drawable.setCallback(this);
+        return drawable;
+    }
+
+    /** the vectors are drawn in the square of the indicator */
+    void setBounds(int left, int top, int size) {
+        ring.setBounds(left, top, left + size, top + size);
+        inner.setBounds(left, top, left + size, top + size);
+    }
+
+    void setColors(int color, int innerColor, int alpha) {
+        ring.setTint(color);
+        inner.setTint(innerColor);
+        ring.setAlpha(alpha);
+        inner.setAlpha(alpha);
+    }
+
+    void setColorFilter(@Nullable ColorFilter colorFilter) {
+        ring.setColorFilter(colorFilter);
+        inner.setColorFilter(colorFilter);
+    }
+
+    /** start the loop from the beginning of a round */
+    void start() {
+        if (running) return;
+        running = true;
+        ring.start();
+        inner.start();
+    }
+
+    /** start the loop over from the beginning of a round, if it's running */
+    void restart() {
+        if (!running) return;
+        ring.stop();
+        inner.stop();
+        ring.start();
+        inner.start();
+    }
+
+    void stop() {
+        if (!running) return;
+        running = false;
+        ring.stop();
+        inner.stop();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void draw(@NonNull Canvas canvas, boolean innerView) {
+        ring.draw(canvas);
+        if (innerView) inner.draw(canvas);
+    }
+
+    // CALLBACK
+
+    @Override
+    public void invalidateDrawable(@NonNull Drawable who) {
+        host.invalidateFrame();
+    }
+
+    @Override
+    public void scheduleDrawable(@NonNull Drawable who, @NonNull Runnable what, long when) {
+        host.scheduleSelf(what, when);
+    }
+
+    @Override
+    public void unscheduleDrawable(@NonNull Drawable who, @NonNull Runnable what) {
+        host.unscheduleSelf(what);
+    }
+}
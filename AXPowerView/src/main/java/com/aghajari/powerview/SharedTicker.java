@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.view.Choreographer;
+
+/**
+ * A single clock for all shared {@link AnimationEngine}s of the UI thread.
+ * Every frame advances all registered engines first and then flushes their invalidations in one pass,
+ * so the cost of a frame depends on the number of running views only.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class SharedTicker implements Choreographer.FrameCallback {
+
+    private static SharedTicker instance;
+
+    static SharedTicker getInstance() {
+        if (instance == null) instance = new SharedTicker();
+        return instance;
+    }
+
+    private AnimationEngine[] engines = new AnimationEngine[16];
+    private int count = 0;
+    private boolean posted = false;
+    private long epochNanos = -1;
+
+    private SharedTicker() {
+    }
+
+    /** @return frame time of the first frame, the shared loops join the rounds of this grid */
+    long getEpochNanos() {
+        return epochNanos;
+    }
+
+    /** engines are removed on the next frame, once they aren't registered anymore */
+    void register(AnimationEngine engine) {
+        for (int i = 0; i < count; i++) {
+            if (engines[i] == engine) return;
+        }
+
+        if (count == engines.length) {
+            AnimationEngine[] newEngines = new AnimationEngine[count * 2];
+            System.arraycopy(engines, 0, newEngines, 0, count);
+            engines = newEngines;
+        }
+        engines[count++] = engine;
+        post();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        if (epochNanos < 0) epochNanos = frameTimeNanos;
+
+        // engines registered while ticking start on the next frame
+        final int size = count;
+        for (int i = 0; i < size; i++) {
+            engines[i].tickFrame(frameTimeNanos);
+        }
+        for (int i = 0; i < size; i++) {
+            engines[i].flush();
+        }
+
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            if (engines[i].isRegistered()) engines[index++] = engines[i];
+        }
+        for (int i = index; i < count; i++) {
+            engines[i] = null;
+        }
+        count = index;
+        post();
+    }
+
+    private void post() {
+        if (count > 0 && !posted) {
+            posted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import com.aghajari.powerview.AXPowerView.State;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the states which have been requested off the UI thread.
+ * Only the latest request is held (atomically, as a single int), so a burst of requests posts one message
+ * and is applied once, on the next frame of the UI thread.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class StateMailbox implements Runnable, Choreographer.FrameCallback {
+
+    interface Receiver {
+        /** apply the latest requested state, called on the UI thread */
+        void onStateReceived(@NonNull State state, boolean animation);
+    }
+
+    private static final int EMPTY = -1;
+    private static final State[] STATES = State.values();
+
+    private final AtomicInteger pending = new AtomicInteger(EMPTY);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Receiver receiver;
+
+    StateMailbox(@NonNull Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    /** @return true if the current thread is the UI thread */
+    static boolean isUiThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /** hold the state until the next frame, it replaces any state which hasn't been applied yet */
+    void post(@NonNull State state, boolean animation) {
+        final int request = (state.ordinal() << 1) | (animation ? 1 : 0);
+        if (pending.getAndSet(request) == EMPTY)
+            handler.post(this);
+    }
+
+    /** drop the pending state, a newer one has been applied on the UI thread */
+    void clear() {
+        pending.set(EMPTY);
+    }
+
+    /** @return true if a state is waiting for its message or its frame */
+    boolean isPending() {
+        return pending.get() != EMPTY;
+    }
+
+    @Override
+    public void run() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        final int request = pending.getAndSet(EMPTY);
+        if (request == EMPTY) return;
+        receiver.onStateReceived(STATES[request >> 1], (request & 1) != 0);
+    }
+}
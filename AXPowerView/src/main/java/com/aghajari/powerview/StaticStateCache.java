@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2020 - Amir Hossein Aghajari
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+
+package com.aghajari.powerview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Records the rendering of an idle state once and replays it on the next draws.
+ * A {@link RenderNode} is used for hardware canvases on API 29+, otherwise a bitmap.
+ *
+ * @author AmirHosseinAghajari
+ */
+final class StaticStateCache {
+
+    interface Renderer {
+        /** draw the idle state */
+        void render(@NonNull Canvas canvas);
+    }
+
+    private static final int NO_KEY = -1;
+
+    private final Renderer renderer;
+
+    private int key = NO_KEY;
+    private int width, height;
+
+    private NodeRecorder nodeRecorder = null;
+    private Bitmap bitmap = null;
+    private Canvas bitmapCanvas = null;
+
+    StaticStateCache(@NonNull Renderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * draw the cached rendering of the state, record it first if the cache isn't valid.
+     * @param key identifier of the cached state
+     * @return false if there is nothing to cache
+     */
+    boolean draw(@NonNull Canvas canvas, int key, int width, int height) {
+        if (width <= 0 || height <= 0) return false;
+
+        boolean valid = this.key == key && this.width == width && this.height == height;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()) {
+            if (nodeRecorder == null)
+                nodeRecorder = new NodeRecorder();
+            if (!valid || !nodeRecorder.isValid())
+                nodeRecorder.record(renderer, width, height);
+            nodeRecorder.draw(canvas);
+        } else {
+            if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+                release();
+                bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                bitmapCanvas = new Canvas(bitmap);
+                valid = false;
+            }
+            if (!valid) {
+                bitmap.eraseColor(Color.TRANSPARENT);
+                renderer.render(bitmapCanvas);
+            }
+            canvas.drawBitmap(bitmap, 0, 0, null);
+        }
+
+        this.key = key;
+        this.width = width;
+        this.height = height;
+        return true;
+    }
+
+    /** the cache will be recorded again on the next draw */
+    void invalidate() {
+        key = NO_KEY;
+    }
+
+    /** release the recorded rendering */
+    void release() {
+        invalidate();
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+            bitmapCanvas = null;
+        }
+        if (nodeRecorder != null)
+            nodeRecorder.discard();
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private static final class NodeRecorder {
+        private final RenderNode node = new RenderNode("AXPowerView");
+
+        boolean isValid() {
+            return node.hasDisplayList();
+        }
+
+        void record(Renderer renderer, int width, int height) {
+            node.setPosition(0, 0, width, height);
+            RecordingCanvas canvas = node.beginRecording(width, height);
+            try {
+                renderer.render(canvas);
+            } finally {
+                node.endRecording();
+            }
+        }
+
+        void draw(Canvas canvas) {
+            canvas.drawRenderNode(node);
+        }
+
+        void discard() {
+            node.discardDisplayList();
+        }
+    }
+}